@@ -84,13 +84,13 @@ public class Main {
                 case CommandUCCProfiler.COMMAND:
                     UCCProfiler uccProfiler = new UCCProfiler();
                     List<UCC> uccResult = new ArrayList<>();
-                    for (Relation relation : Relation.readAllRelationsIn(commandUCCProfiler.inputPath, commandUCCProfiler.hasHeader, commandUCCProfiler.separator.charAt(0), StandardCharsets.UTF_8))
+                    for (Relation relation : Relation.readAllRelationsIn(commandUCCProfiler.inputPath, commandUCCProfiler.hasHeader, commandUCCProfiler.separator.charAt(0), StandardCharsets.UTF_8, commandUCCProfiler.parallelism))
                         uccResult.addAll(uccProfiler.profile(relation));
                     uccResult.forEach(System.out::println);
                     break;
                 case CommandINDProfiler.COMMAND:
                     INDProfiler indProfiler = new INDProfiler();
-                    List<Relation> relations = Relation.readAllRelationsIn(commandINDProfiler.inputPath, commandINDProfiler.hasHeader, commandINDProfiler.separator.charAt(0), StandardCharsets.UTF_8);
+                    List<Relation> relations = Relation.readAllRelationsIn(commandINDProfiler.inputPath, commandINDProfiler.hasHeader, commandINDProfiler.separator.charAt(0), StandardCharsets.UTF_8, commandINDProfiler.parallelism);
                     List<IND> indResult = indProfiler.profile(relations, commandINDProfiler.discoverNary);
                     indResult.forEach(System.out::println);
                     break;
@@ -196,6 +196,9 @@ public class Main {
 
         @Parameter(names = {"--separator"}, description = "File separator character", required = false, arity = 1)
         String separator = ";";
+
+        @Parameter(names = {"--parallelism"}, description = "Maximum number of threads used to load the input files", required = false, arity = 1)
+        int parallelism = Runtime.getRuntime().availableProcessors();
     }
 
     @Parameters(commandDescription = "Execute the INDProfiler data profiling algorithm.")
@@ -214,6 +217,9 @@ public class Main {
 
         @Parameter(names = {"--discoverNary"}, description = "Flag to indicate whether n-ary INDs should be discovered as well", required = false, arity = 1)
         boolean discoverNary = false;
+
+        @Parameter(names = {"--parallelism"}, description = "Maximum number of threads used to load the input files", required = false, arity = 1)
+        int parallelism = Runtime.getRuntime().availableProcessors();
     }
 
     @Parameters(commandDescription = "Execute the FirstLineSchemaMatcher algorithm.")
@@ -6,7 +6,15 @@ import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.enums.CSVReaderNullFieldIndicator;
 import com.opencsv.exceptions.CsvValidationException;
-import lombok.AllArgsConstructor;
+import de.di.helper.CompressedInput;
+import de.di.helper.CsvLineParser;
+import de.di.helper.CsvRecordCursor;
+import de.di.helper.MappedCsvReader;
+import de.di.helper.RelationSnapshot;
+import de.di.helper.StringPool;
+import de.di.structures.DictionaryColumn;
+import de.di.structures.TypedColumn;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.io.BufferedReader;
@@ -19,25 +27,145 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @Getter
-@AllArgsConstructor
 public class Relation {
 
     private String name;
     private String[] attributes;
+
+    // The records of this relation; if the relation is stored dictionary-encoded, a view that is decoded on demand.
+    @Getter(AccessLevel.NONE)
     private String[][] records;
 
+    // The column-major view of the records; built lazily and shared by all callers of getColumns().
+    @Getter(AccessLevel.NONE)
+    private String[][] columns;
+
+    // The dictionary-encoded columns of this relation; the primary storage of relations that are read from files and
+    // otherwise built once on first access.
+    @Getter(AccessLevel.NONE)
+    private DictionaryColumn[] encodedColumns;
+
+    // The flag that is set if the encoded columns are the primary storage of this relation.
+    @Getter(AccessLevel.NONE)
+    private boolean encoded;
+
+    // The typed columns of this relation; built once on first access.
+    @Getter(AccessLevel.NONE)
+    private TypedColumn[] typedColumns;
+
+    // The flag that is set if only some columns of a file were read; projected relations are not written as snapshots.
+    private boolean projected;
+
     public static List<Relation> readAllRelationsIn(String folderPath, boolean hasHeader, char separator, Charset charset) {
+        return readAllRelationsIn(folderPath, hasHeader, separator, charset, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads all relations in the given folder and its sub-folders. The files are loaded concurrently on a pool of at
+     * most parallelism threads; if there are fewer files than threads, the remaining threads are used to parse the
+     * individual files. The relations are returned in the lexicographical order of their file paths, independent of
+     * the order in which their loading finishes. Compressed files are read directly without decompressing them to disk.
+     * @param folderPath The path of the folder that contains the CSV files.
+     * @param hasHeader A flag indicating whether the first line of each file holds the attribute names.
+     * @param separator The field separator of the files.
+     * @param charset The charset of the files.
+     * @param parallelism The maximum number of threads that are used for loading.
+     * @return The relations of all files in the folder ordered by their file paths.
+     */
+    public static List<Relation> readAllRelationsIn(String folderPath, boolean hasHeader, char separator, Charset charset, int parallelism) {
+        List<Path> filePaths;
         try (Stream<Path> paths = Files.walk(Paths.get(folderPath))) {
-            return paths.filter(Files::isRegularFile)
-                    .map(filePath -> new Relation(filePath, hasHeader, separator, charset))
+            filePaths = paths.filter(Files::isRegularFile)
+                    .filter(filePath -> !RelationSnapshot.isSnapshot(filePath))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        int numThreads = Math.max(1, Math.min(parallelism, filePaths.size()));
+        int parsingParallelism = Math.max(1, parallelism / numThreads);
+        if (numThreads == 1)
+            return filePaths.stream()
+                    .map(filePath -> readRelation(filePath, hasHeader, separator, charset, parsingParallelism))
                     .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<Relation>> futures = new ArrayList<>(filePaths.size());
+            for (Path filePath : filePaths)
+                futures.add(executor.submit(() -> readRelation(filePath, hasHeader, separator, charset, parsingParallelism)));
+
+            List<Relation> relations = new ArrayList<>(futures.size());
+            for (Future<Relation> future : futures)
+                relations.add(future.get());
+            return relations;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the relation of the given CSV file from its binary snapshot if a valid one exists next to the file and
+     * parses the CSV file otherwise.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader A flag indicating whether the first line of the file holds the attribute names.
+     * @param separator The field separator of the file.
+     * @param charset The charset of the file.
+     * @return The relation of the CSV file.
+     */
+    public static Relation readRelation(Path filePath, boolean hasHeader, char separator, Charset charset) {
+        return readRelation(filePath, hasHeader, separator, charset, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static Relation readRelation(Path filePath, boolean hasHeader, char separator, Charset charset, int parallelism) {
+        try {
+            Relation relation = RelationSnapshot.read(filePath, hasHeader, separator, charset);
+            if (relation != null)
+                return relation;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        return new Relation(filePath, hasHeader, separator, charset, parallelism);
+    }
+
+    public Relation(String name, String[] attributes, String[][] records) {
+        this.name = name;
+        this.attributes = attributes;
+        this.records = records;
+    }
+
+    /**
+     * Creates a relation that is stored in the given dictionary-encoded columns; its records are decoded on demand.
+     * @param name The name of the relation.
+     * @param attributes The names of the attributes.
+     * @param encodedColumns The encoded columns, one per attribute and all of the same size.
+     */
+    public Relation(String name, String[] attributes, DictionaryColumn[] encodedColumns) {
+        this.name = name;
+        this.attributes = attributes;
+        if (encodedColumns.length == 0) {
+            this.records = new String[0][];
+        } else {
+            this.encodedColumns = encodedColumns;
+            this.encoded = true;
+        }
     }
 
     public Relation(String filePath) {
@@ -49,8 +177,117 @@ public class Relation {
     }
 
     public Relation(Path filePath, boolean hasHeader, char separator, Charset charset) {
+        this(filePath, hasHeader, separator, charset, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads the relation from the given CSV file. Files in ASCII-compatible charsets are memory-mapped and parsed with
+     * the given number of threads; all other files are read sequentially with opencsv. Both ways use the same quote,
+     * escape and empty-as-null semantics and produce identical records. Compressed files, such as .gz files, are
+     * decompressed on a separate thread while they are parsed; see CompressedInput.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader A flag indicating whether the first line of the file holds the attribute names.
+     * @param separator The field separator of the file.
+     * @param charset The charset of the file.
+     * @param parallelism The number of threads that parse the file.
+     */
+    public Relation(Path filePath, boolean hasHeader, char separator, Charset charset, int parallelism) {
+        this(filePath, hasHeader, separator, charset, parallelism, null, null);
+    }
+
+    /**
+     * Reads only the given columns of the given CSV file; all other fields are skipped while parsing, so they cost
+     * neither strings nor memory. The attributes of the relation are the projected attributes in the given order, so all
+     * attribute indexes that are used on this relation, e.g., by a RecordComparator, refer to the projected columns.
+     * Without a header, the projected attributes are named by their index in the file.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader A flag indicating whether the first line of the file holds the attribute names.
+     * @param separator The field separator of the file.
+     * @param charset The charset of the file.
+     * @param projection The indexes of the columns that should be read.
+     */
+    public Relation(Path filePath, boolean hasHeader, char separator, Charset charset, int[] projection) {
+        this(filePath, hasHeader, separator, charset, Runtime.getRuntime().availableProcessors(), projection, null);
+    }
+
+    /**
+     * Reads only the given attributes of the given CSV file, which must have a header; see Relation(Path, boolean, char,
+     * Charset, int[]).
+     * @param filePath The path of the CSV file.
+     * @param separator The field separator of the file.
+     * @param charset The charset of the file.
+     * @param projectedAttributes The names of the attributes that should be read.
+     */
+    public Relation(Path filePath, char separator, Charset charset, String[] projectedAttributes) {
+        this(filePath, true, separator, charset, Runtime.getRuntime().availableProcessors(), null, projectedAttributes);
+    }
+
+    private Relation(Path filePath, boolean hasHeader, char separator, Charset charset, int parallelism, int[] projection, String[] projectedAttributes) {
         this.name = filePath.getFileName().toString().split("\\.")[0];
+        this.projected = projection != null || projectedAttributes != null;
 
+        if (CompressedInput.isCompressed(filePath)) {
+            this.readCompressed(filePath, hasHeader, separator, charset, projection, projectedAttributes);
+        } else if (MappedCsvReader.supports(separator, charset)) {
+            try {
+                MappedCsvReader reader = new MappedCsvReader(separator, charset, parallelism);
+                MappedCsvReader.Content content = (projectedAttributes != null) ?
+                        reader.read(filePath, projectedAttributes) : reader.read(filePath, hasHeader, projection);
+                this.attributes = content.getHeader();
+                this.records = content.getRecords();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            this.readWithOpenCsv(filePath, hasHeader, separator, charset, projection, projectedAttributes);
+        }
+
+        if (!hasHeader && this.records.length != 0) {
+            this.attributes = new String[this.records[0].length];
+            for (int i = 0; i < this.records[0].length; i++)
+                this.attributes[i] = String.valueOf((projection == null) ? i : projection[i]);
+        }
+
+        this.encode();
+    }
+
+    /**
+     * Replaces the parsed records by their dictionary encoding, so that every distinct value of a column is kept once
+     * and every field costs an int code instead of a string. Records that do not all have one value per attribute
+     * cannot be encoded by column and are kept as they are.
+     */
+    private void encode() {
+        if (this.attributes == null || this.attributes.length == 0)
+            return;
+        for (String[] record : this.records)
+            if (record.length != this.attributes.length)
+                return;
+
+        DictionaryColumn[] encodedColumns = new DictionaryColumn[this.attributes.length];
+        String[] buffer = new String[this.records.length];
+        for (int i = 0; i < encodedColumns.length; i++)
+            encodedColumns[i] = new DictionaryColumn(this.copyColumn(i, buffer));
+        this.encodedColumns = encodedColumns;
+        this.encoded = true;
+        this.records = null;
+    }
+
+    private void readCompressed(Path filePath, boolean hasHeader, char separator, Charset charset, int[] projection, String[] projectedAttributes) {
+        ArrayList<String[]> records = new ArrayList<>();
+        try (CsvRecordCursor cursor = (projectedAttributes != null) ?
+                new CsvRecordCursor(filePath, separator, charset, projectedAttributes) :
+                new CsvRecordCursor(filePath, hasHeader, separator, charset, projection)) {
+            this.attributes = cursor.getAttributes();
+            String[] record;
+            while ((record = cursor.next()) != null)
+                records.add(record.clone());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.records = records.toArray(new String[0][]);
+    }
+
+    private void readWithOpenCsv(Path filePath, boolean hasHeader, char separator, Charset charset, int[] projection, String[] projectedAttributes) {
         CSVParser parser = new CSVParserBuilder()
                 .withSeparator(separator)
                 .withQuoteChar('"')
@@ -67,10 +304,16 @@ public class Relation {
 
             if (hasHeader)
                 this.attributes = reader.readNext();
+            if (projectedAttributes != null)
+                projection = CsvLineParser.resolveProjection(this.attributes, projectedAttributes);
+            if (this.attributes != null && projection != null)
+                this.attributes = CsvLineParser.project(this.attributes, projection);
 
             records = new ArrayList<>();
             String[] line;
             while ((line = reader.readNext()) != null) {
+                if (projection != null)
+                    line = CsvLineParser.project(line, projection);
                 for (int i = 0; i < line.length; i++)
                     if (line[i] == null)
                         line[i] = "";
@@ -84,29 +327,210 @@ public class Relation {
         this.records = new String[records.size()][];
         for (int i = 0; i < records.size(); i++)
             this.records[i] = records.get(i);
+    }
 
-        if (!hasHeader && this.records.length != 0) {
-            this.attributes = new String[this.records[0].length];
-            for (int i = 0; i < this.records[0].length; i++)
-                this.attributes[i] = String.valueOf(i);
+    /**
+     * Returns the records of this relation in row-major form, i.e., records[record][attribute]. Relations that are
+     * stored dictionary-encoded decode their records on the first call into rows that share the dictionary values and
+     * keep them until releaseColumns() is called, so the returned arrays must not be modified. Use getNumRecords() and
+     * getRecord() to access single records without decoding all of them.
+     * @return The records of this relation.
+     */
+    public synchronized String[][] getRecords() {
+        if (this.records == null) {
+            String[][] records = new String[this.getNumRecords()][];
+            for (int j = 0; j < records.length; j++)
+                records[j] = this.getRecord(j);
+            this.records = records;
+        }
+        return this.records;
+    }
+
+    /**
+     * Returns the number of records of this relation.
+     * @return The number of records of this relation.
+     */
+    public int getNumRecords() {
+        return this.encoded ? this.encodedColumns[0].size() : this.records.length;
+    }
+
+    /**
+     * Returns the record with the given index; records of dictionary-encoded relations are decoded on every call.
+     * @param index The index of the record.
+     * @return The values of the record.
+     */
+    public String[] getRecord(int index) {
+        if (!this.encoded)
+            return this.records[index];
+
+        String[] record = new String[this.encodedColumns.length];
+        for (int i = 0; i < record.length; i++)
+            record[i] = this.encodedColumns[i].valueOf(index);
+        return record;
+    }
+
+    /**
+     * Checks whether every record of this relation has one value per attribute; dictionary-encoded relations always do.
+     * @return true if the records of this relation form a rectangle.
+     */
+    public boolean isRectangular() {
+        if (this.encoded)
+            return true;
+        for (String[] record : this.records)
+            if (record == null || this.attributes == null || record.length != this.attributes.length)
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the records of this relation in column-major form, i.e., columns[attribute][record]. The transposed view
+     * is built on the first call and then shared by all callers, so the returned arrays must not be modified. Use
+     * releaseColumns() to drop the view if memory gets scarce; it is rebuilt on the next call.
+     * @return The column-major view of the records of this relation.
+     */
+    public synchronized String[][] getColumns() {
+        if (this.columns == null) {
+            String[][] columns = new String[this.attributes.length][];
+            if (this.encoded) {
+                for (int i = 0; i < columns.length; i++)
+                    columns[i] = this.copyColumn(i, new String[this.getNumRecords()]);
+            } else {
+                for (int i = 0; i < columns.length; i++)
+                    columns[i] = new String[this.records.length];
+                for (int j = 0; j < this.records.length; j++)
+                    for (int i = 0; i < columns.length; i++)
+                        columns[i][j] = this.records[j][i];
+            }
+            this.columns = columns;
+        }
+        return this.columns;
+    }
+
+    /**
+     * Releases the cached column-major, dictionary-encoded and typed views of this relation as well as the decoded
+     * records of a dictionary-encoded relation. The stored data itself is not affected and the views are rebuilt
+     * transparently on their next access.
+     */
+    public synchronized void releaseColumns() {
+        this.columns = null;
+        this.typedColumns = null;
+        if (this.encoded)
+            this.records = null;
+        else
+            this.encodedColumns = null;
+    }
+
+    /**
+     * Returns the columns of this relation in dictionary-encoded form, i.e., every column as an int[] of value codes
+     * plus a per-column dictionary of its distinct values. Relations that are read from files are stored in this form;
+     * for all other relations, the encoding is built once and shared by all callers.
+     * @return The dictionary-encoded columns of this relation.
+     */
+    public synchronized DictionaryColumn[] getEncodedColumns() {
+        if (this.encodedColumns == null) {
+            // Typed columns are encoded by their primitive values, which avoids hashing and comparing their strings
+            TypedColumn[] typedColumns = this.getTypedColumns();
+            DictionaryColumn[] encodedColumns = new DictionaryColumn[this.attributes.length];
+            String[] buffer = (this.columns == null) ? new String[this.records.length] : null;
+            for (int i = 0; i < encodedColumns.length; i++) {
+                String[] column = (this.columns == null) ? this.copyColumn(i, buffer) : this.columns[i];
+                encodedColumns[i] = typedColumns[i].isTyped() ?
+                        new DictionaryColumn(typedColumns[i], column) : new DictionaryColumn(column);
+            }
+            this.encodedColumns = encodedColumns;
+        }
+        return this.encodedColumns;
+    }
+
+    /**
+     * Returns the columns of this relation in typed form: Every column whose non-empty values are all canonical
+     * integers, decimals or ISO dates is stored in a primitive array with a null bitmap; all other columns have the type
+     * STRING. The types are inferred once on first access and shared by all callers.
+     * @return The typed columns of this relation.
+     */
+    public synchronized TypedColumn[] getTypedColumns() {
+        if (this.typedColumns == null) {
+            TypedColumn[] typedColumns = new TypedColumn[this.attributes.length];
+            String[] buffer = (this.columns == null) ? new String[this.getNumRecords()] : null;
+            for (int i = 0; i < typedColumns.length; i++)
+                typedColumns[i] = TypedColumn.of((this.columns == null) ? this.copyColumn(i, buffer) : this.columns[i]);
+            this.typedColumns = typedColumns;
         }
+        return this.typedColumns;
     }
 
-    public String[][] getColumns() {
-        String[][] columns = new String[this.attributes.length][];
-        for (int i = 0; i < columns.length; i++)
-            columns[i] = new String[this.records.length];
-        for (int j = 0; j < this.records.length; j++)
-            for (int i = 0; i < columns.length; i++)
-                columns[i][j] = this.records[j][i];
-        return columns;
+    /**
+     * Copies one column into the given buffer instead of materializing the full transposed view.
+     */
+    private String[] copyColumn(int attribute, String[] buffer) {
+        if (this.encoded) {
+            DictionaryColumn column = this.encodedColumns[attribute];
+            for (int j = 0; j < buffer.length; j++)
+                buffer[j] = column.valueOf(j);
+        } else {
+            for (int j = 0; j < this.records.length; j++)
+                buffer[j] = this.records[j][attribute];
+        }
+        return buffer;
+    }
+
+    /**
+     * Replaces equal values in the records of this relation by one shared instance, so that repeating values, such as
+     * keys, flags or country codes, are stored only once. With per-column interning, values are shared within each
+     * column and the columns are processed in parallel; with global interning, values are shared across all columns.
+     * Dictionary-encoded relations already store every value once per column, so only global interning changes them:
+     * it shares the values of their dictionaries across the columns. This should be called directly after loading,
+     * before the records are handed to other algorithms.
+     * @param global A flag indicating whether values should be shared across columns or only within each column.
+     * @return This relation.
+     */
+    public synchronized Relation internValues(boolean global) {
+        if (this.encoded) {
+            if (global) {
+                StringPool pool = new StringPool();
+                for (DictionaryColumn column : this.encodedColumns)
+                    pool.internAll(column.getDictionary());
+            }
+        } else if (global) {
+            StringPool pool = new StringPool();
+            for (String[] record : this.records)
+                pool.internAll(record);
+        } else {
+            IntStream.range(0, this.attributes.length).parallel().forEach(attribute -> {
+                StringPool pool = new StringPool();
+                for (String[] record : this.records)
+                    if (attribute < record.length)
+                        record[attribute] = pool.intern(record[attribute]);
+            });
+        }
+
+        // Cached views may still reference the replaced instances
+        this.releaseColumns();
+        return this;
+    }
+
+    /**
+     * Writes a binary snapshot of this relation next to the CSV file it was read from, so that later calls of
+     * readRelation() and readAllRelationsIn() can load it without parsing the CSV file again.
+     * @param filePath The path of the CSV file this relation was read from.
+     * @param hasHeader The header flag this relation was read with.
+     * @param separator The separator this relation was read with.
+     * @param charset The charset this relation was read with.
+     * @return true if the snapshot was written; non-rectangular and projected relations are not written.
+     */
+    public boolean writeSnapshot(Path filePath, boolean hasHeader, char separator, Charset charset) {
+        try {
+            return RelationSnapshot.write(this, filePath, hasHeader, separator, charset);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append(this.name).append(Arrays.toString(this.attributes));
-        for (String[] record : this.records)
+        for (String[] record : this.getRecords())
             builder.append("\r\n").append(Arrays.toString(record));
         return builder.toString();
     }
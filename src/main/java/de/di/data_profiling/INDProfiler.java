@@ -2,6 +2,9 @@ package de.di.data_profiling;
 
 import de.di.Relation;
 import de.di.data_profiling.structures.IND;
+import de.di.structures.DictionaryColumn;
+import de.di.structures.TypedColumn;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,33 +23,40 @@ public class INDProfiler {
 
         List<IND> inclusionDependencies = new ArrayList<>();
 
+        // Extract the trimmed, non-empty value set of every column once from the column dictionaries; typed columns
+        // additionally provide their values as primitive keys, so that columns of the same type are compared by longs
+        Map<Relation, List<ColumnValues>> columnValues = new IdentityHashMap<>();
+        for (Relation relation : relations) {
+            List<ColumnValues> valueSets = new ArrayList<>();
+            DictionaryColumn[] encodedColumns = relation.getEncodedColumns();
+            TypedColumn[] typedColumns = relation.getTypedColumns();
+            for (int i = 0; i < encodedColumns.length; i++)
+                valueSets.add(new ColumnValues(encodedColumns[i], typedColumns[i]));
+            columnValues.put(relation, valueSets);
+        }
+
         for (Relation relation1 : relations) {
-            String[][] columns1 = relation1.getColumns();
-            for (int i = 0; i < columns1.length; i++) {
-                Set<String> column1Values = Arrays.stream(columns1[i])
-                        .map(String::trim)
-                        .filter(val -> !val.isEmpty())
-                        .collect(Collectors.toSet());
+            List<ColumnValues> columns1 = columnValues.get(relation1);
+            for (int i = 0; i < columns1.size(); i++) {
+                ColumnValues column1Values = columns1.get(i);
 
                 // Skip if column1Values is empty
-                if (column1Values.isEmpty()) {
+                if (column1Values.size() == 0) {
                     continue;
                 }
 
                 for (Relation relation2 : relations) {
-                    String[][] columns2 = relation2.getColumns();
-                    for (int j = 0; j < columns2.length; j++) {
+                    List<ColumnValues> columns2 = columnValues.get(relation2);
+                    for (int j = 0; j < columns2.size(); j++) {
                         // Skip trivial inclusion dependencies (column includes itself)
                         if (relation1 == relation2 && i == j) {
                             continue;
                         }
 
-                        Set<String> column2Values = Arrays.stream(columns2[j])
-                                .map(String::trim)
-                                .filter(val -> !val.isEmpty())
-                                .collect(Collectors.toSet());
+                        ColumnValues column2Values = columns2.get(j);
 
-                        if (column2Values.containsAll(column1Values)) {
+                        // A smaller rhs value set can never contain the lhs value set
+                        if (column2Values.size() >= column1Values.size() && column2Values.containsAll(column1Values)) {
                             inclusionDependencies.add(new IND(relation1, i, relation2, j));
                         }
                     }
@@ -56,4 +66,49 @@ public class INDProfiler {
 
         return inclusionDependencies;
     }
+
+    /**
+     * The distinct, trimmed and non-empty values of one column. The strings are only extracted if a containment check
+     * needs them, i.e., if the column is not typed or is compared to a column of a different type.
+     */
+    private static class ColumnValues {
+
+        private final DictionaryColumn encodedColumn;
+        private final TypedColumn typedColumn;
+        private final LongOpenHashSet keys;
+        private Set<String> strings;
+
+        private ColumnValues(DictionaryColumn encodedColumn, TypedColumn typedColumn) {
+            this.encodedColumn = encodedColumn;
+            this.typedColumn = typedColumn;
+            if (typedColumn.isTyped()) {
+                this.keys = new LongOpenHashSet();
+                for (int recordIndex = 0; recordIndex < typedColumn.size(); recordIndex++)
+                    if (!typedColumn.isNull(recordIndex))
+                        this.keys.add(typedColumn.keyOf(recordIndex));
+            } else {
+                this.keys = null;
+                this.strings = this.strings();
+            }
+        }
+
+        private int size() {
+            return (this.keys != null) ? this.keys.size() : this.strings.size();
+        }
+
+        private Set<String> strings() {
+            if (this.strings == null)
+                this.strings = Arrays.stream(this.encodedColumn.getDictionary())
+                        .map(String::trim)
+                        .filter(val -> !val.isEmpty())
+                        .collect(Collectors.toSet());
+            return this.strings;
+        }
+
+        private boolean containsAll(ColumnValues other) {
+            if (this.keys != null && other.keys != null && this.typedColumn.isComparableTo(other.typedColumn))
+                return this.keys.containsAll(other.keys);
+            return this.strings().containsAll(other.strings());
+        }
+    }
 }
@@ -4,6 +4,7 @@ import de.di.Relation;
 import de.di.data_profiling.structures.AttributeList;
 import de.di.data_profiling.structures.PositionListIndex;
 import de.di.data_profiling.structures.UCC;
+import de.di.structures.DictionaryColumn;
 
 import java.util.*;
 
@@ -16,13 +17,14 @@ public class UCCProfiler {
      */
     public List<UCC> profile(Relation relation) {
         int numAttributes = relation.getAttributes().length;
+        DictionaryColumn[] columns = relation.getEncodedColumns();
         List<UCC> uniques = new ArrayList<>();
         List<PositionListIndex> currentNonUniques = new ArrayList<>();
 
         // Calculate all unary UCCs and unary non-UCCs
         for (int attribute = 0; attribute < numAttributes; attribute++) {
             AttributeList attributes = new AttributeList(attribute);
-            PositionListIndex pli = new PositionListIndex(attributes, relation.getColumns()[attribute]);
+            PositionListIndex pli = new PositionListIndex(attributes, columns[attribute]);
             if (pli.isUnique())
                 uniques.add(new UCC(relation, attributes));
             else
@@ -51,8 +53,8 @@ public class UCCProfiler {
                     AttributeList combinedAttributes = currentNonUniques.get(i).getAttributes().union(currentNonUniques.get(j).getAttributes());
                     if (combinedAttributes.size() == size && !checkedCombinations.contains(combinedAttributes)) {
                         checkedCombinations.add(combinedAttributes);
-                        String[] combinedData = combineColumns(combinedAttributes, relation);
-                        PositionListIndex combinedPli = new PositionListIndex(combinedAttributes, combinedData);
+                        DictionaryColumn combinedColumn = combineColumns(combinedAttributes, columns);
+                        PositionListIndex combinedPli = new PositionListIndex(combinedAttributes, combinedColumn);
                         if (combinedPli.isUnique()) {
                             if (isMinimal(combinedAttributes, uniques)) {
                                 uniques.add(new UCC(relation, combinedAttributes));
@@ -94,20 +96,11 @@ public class UCCProfiler {
         return true;
     }
 
-    private String[] combineColumns(AttributeList attributes, Relation relation) {
-        int numRows = relation.getColumns()[0].length;
-        String[][] columns = relation.getColumns();
-        String[] combinedData = new String[numRows];
-
-        for (int row = 0; row < numRows; row++) {
-            StringBuilder sb = new StringBuilder();
-            for (int attribute : attributes.getAttributes()) {
-                sb.append(columns[attribute][row]).append("|"); // Use a delimiter to separate values
-            }
-            combinedData[row] = sb.toString();
-        }
-
-        return combinedData;
+    private DictionaryColumn combineColumns(AttributeList attributes, DictionaryColumn[] columns) {
+        DictionaryColumn[] combinedColumns = new DictionaryColumn[attributes.size()];
+        for (int i = 0; i < attributes.size(); i++)
+            combinedColumns[i] = columns[attributes.getAttributes()[i]];
+        return DictionaryColumn.combine(combinedColumns);
     }
 
 }
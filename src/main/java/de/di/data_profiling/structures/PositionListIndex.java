@@ -1,5 +1,6 @@
 package de.di.data_profiling.structures;
 
+import de.di.structures.DictionaryColumn;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
@@ -21,6 +22,12 @@ public class PositionListIndex {
         this.invertedClusters = this.calculateInverted(this.clusters, values.length);
     }
 
+    public PositionListIndex(final AttributeList attributes, final DictionaryColumn column) {
+        this.attributes = attributes;
+        this.clusters = this.calculateClusters(column);
+        this.invertedClusters = this.calculateInverted(this.clusters, column.size());
+    }
+
     public PositionListIndex(final AttributeList attributes, final List<IntArrayList> clusters, int relationLength) {
         this.attributes = attributes;
         this.clusters = clusters;
@@ -36,6 +43,28 @@ public class PositionListIndex {
         return invertedIndex.values().stream().filter(cluster -> cluster.size() > 1).collect(Collectors.toList());
     }
 
+    private List<IntArrayList> calculateClusters(final DictionaryColumn column) {
+        int[] codes = column.getCodes();
+        int[] frequencies = new int[column.cardinality()];
+        for (int code : codes)
+            frequencies[code]++;
+
+        // Only codes that occur more than once form a cluster; the codes are dense, so an array replaces the hash map
+        IntArrayList[] clustersByCode = new IntArrayList[frequencies.length];
+        List<IntArrayList> clusters = new ArrayList<>();
+        for (int recordIndex = 0; recordIndex < codes.length; recordIndex++) {
+            int code = codes[recordIndex];
+            if (frequencies[code] < 2)
+                continue;
+            if (clustersByCode[code] == null) {
+                clustersByCode[code] = new IntArrayList(frequencies[code]);
+                clusters.add(clustersByCode[code]);
+            }
+            clustersByCode[code].add(recordIndex);
+        }
+        return clusters;
+    }
+
     private int[] calculateInverted(List<IntArrayList> clusters, int relationLength) {
         int[] invertedClusters = new int[relationLength];
         Arrays.fill(invertedClusters, -1);
@@ -1,10 +1,13 @@
 package de.di.duplicate_detection;
 
+import de.di.Relation;
 import de.di.duplicate_detection.structures.AttrSimWeight;
 import de.di.similarity_measures.SimilarityMeasure;
+import de.di.similarity_measures.helper.PreparedValue;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class RecordComparator {
 
@@ -17,9 +20,20 @@ public class RecordComparator {
     // or not. The threshold should fit the attrSimWeights-based similarity scoring of this RecordComparator;
     private double threshold;
 
+    // The sum of the weights of all AttrSimWeight triples after the triple with the same index, i.e., the similarity
+    // that the remaining attributes can contribute at most.
+    private double[] remainingWeights;
+
+    // A tolerance for rounding errors when similarity bounds are derived from the threshold.
+    private static final double BOUND_TOLERANCE = 1e-9;
+
     public RecordComparator(List<AttrSimWeight> attrSimWeights, double threshold) {
         this.attrSimWeights = this.normalize(attrSimWeights);
         this.threshold = threshold;
+
+        this.remainingWeights = new double[this.attrSimWeights.size()];
+        for (int i = this.remainingWeights.length - 2; i >= 0; i--)
+            this.remainingWeights[i] = this.remainingWeights[i + 1] + this.attrSimWeights.get(i + 1).getWeight();
     }
 
     /**
@@ -70,6 +84,100 @@ public class RecordComparator {
         return recordSimilarity;
     }
 
+    /**
+     * Compares the two provided tuples like compare(), but only as precisely as needed for isDuplicate(): Before every
+     * attribute, the similarity that the attribute must at least reach for the tuples to still exceed the threshold is
+     * derived from the similarities so far and the weights of the remaining attributes, and it is passed to the
+     * similarity measure as minimum similarity. The comparison stops as soon as an attribute falls below its minimum.
+     * @param tuple1 The first tuple for the comparison.
+     * @param tuple2 The second tuple for the comparison.
+     * @return The same similarity as compare() if the tuples are duplicates; otherwise a similarity that is not higher
+     * than the threshold.
+     */
+    public double compareBounded(String[] tuple1, String[] tuple2) {
+        double recordSimilarity = 0;
+        for (int i = 0; i < this.attrSimWeights.size(); i++) {
+            AttrSimWeight attrSimWeight = this.attrSimWeights.get(i);
+            int attributeIndex = attrSimWeight.getAttribute();
+            double weight = attrSimWeight.getWeight();
+
+            double minSimilarity = (weight > 0) ?
+                    (this.threshold - recordSimilarity - this.remainingWeights[i]) / weight - BOUND_TOLERANCE : Double.NEGATIVE_INFINITY;
+            double attributeSimilarity = attrSimWeight.getSimilarityMeasure().calculate(tuple1[attributeIndex], tuple2[attributeIndex], minSimilarity);
+            recordSimilarity += weight * attributeSimilarity;
+            if (attributeSimilarity < minSimilarity)
+                return Math.min(recordSimilarity + this.remainingWeights[i], this.threshold);
+        }
+        return recordSimilarity;
+    }
+
+    /**
+     * Prepares the provided tuple for repeated comparisons: The value of every AttrSimWeight attribute is prepared by
+     * the similarity measure of the triple, e.g., tokenized into token ids, so that compare() and compareBounded() of
+     * prepared tuples do not derive these features again for every pair.
+     * @param tuple The tuple that should be prepared.
+     * @return The prepared values of the tuple in the order of the internal AttrSimWeight objects.
+     */
+    public PreparedValue[] prepare(String[] tuple) {
+        PreparedValue[] preparedTuple = new PreparedValue[this.attrSimWeights.size()];
+        for (int i = 0; i < preparedTuple.length; i++) {
+            AttrSimWeight attrSimWeight = this.attrSimWeights.get(i);
+            preparedTuple[i] = attrSimWeight.getSimilarityMeasure().prepare(tuple[attrSimWeight.getAttribute()]);
+        }
+        return preparedTuple;
+    }
+
+    /**
+     * Prepares all records of the provided relation for repeated comparisons; see prepare(String[]). The records are
+     * prepared in parallel.
+     * @param relation The relation whose records should be prepared.
+     * @return The prepared records in the order of the relation's records.
+     */
+    public PreparedValue[][] prepare(Relation relation) {
+        String[][] records = relation.getRecords();
+        PreparedValue[][] preparedRecords = new PreparedValue[records.length][];
+        IntStream.range(0, records.length).parallel().forEach(i -> preparedRecords[i] = this.prepare(records[i]));
+        return preparedRecords;
+    }
+
+    /**
+     * Compares the two prepared tuples like compare(String[], String[]) with the same result.
+     * @param tuple1 The first prepared tuple for the comparison, as created by prepare().
+     * @param tuple2 The second prepared tuple for the comparison, as created by prepare().
+     * @return The similarity of the two tuples w.r.t. the internal similarity measures.
+     */
+    public double compare(PreparedValue[] tuple1, PreparedValue[] tuple2) {
+        double recordSimilarity = 0;
+        for (int i = 0; i < this.attrSimWeights.size(); i++) {
+            AttrSimWeight attrSimWeight = this.attrSimWeights.get(i);
+            recordSimilarity += attrSimWeight.getWeight() * attrSimWeight.getSimilarityMeasure().calculate(tuple1[i], tuple2[i]);
+        }
+        return recordSimilarity;
+    }
+
+    /**
+     * Compares the two prepared tuples like compareBounded(String[], String[]).
+     * @param tuple1 The first prepared tuple for the comparison, as created by prepare().
+     * @param tuple2 The second prepared tuple for the comparison, as created by prepare().
+     * @return The same similarity as compare() if the tuples are duplicates; otherwise a similarity that is not higher
+     * than the threshold.
+     */
+    public double compareBounded(PreparedValue[] tuple1, PreparedValue[] tuple2) {
+        double recordSimilarity = 0;
+        for (int i = 0; i < this.attrSimWeights.size(); i++) {
+            AttrSimWeight attrSimWeight = this.attrSimWeights.get(i);
+            double weight = attrSimWeight.getWeight();
+
+            double minSimilarity = (weight > 0) ?
+                    (this.threshold - recordSimilarity - this.remainingWeights[i]) / weight - BOUND_TOLERANCE : Double.NEGATIVE_INFINITY;
+            double attributeSimilarity = attrSimWeight.getSimilarityMeasure().calculate(tuple1[i], tuple2[i], minSimilarity);
+            recordSimilarity += weight * attributeSimilarity;
+            if (attributeSimilarity < minSimilarity)
+                return Math.min(recordSimilarity + this.remainingWeights[i], this.threshold);
+        }
+        return recordSimilarity;
+    }
+
     /**
      * Decides if the provided similarity is higher than the internal similarity threshold and, therefore,
      * characterizes a duplicate.
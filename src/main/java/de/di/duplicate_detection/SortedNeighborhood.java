@@ -3,9 +3,14 @@ package de.di.duplicate_detection;
 import de.di.Relation;
 import de.di.duplicate_detection.structures.AttrSimWeight;
 import de.di.duplicate_detection.structures.Duplicate;
+import de.di.similarity_measures.AffixSimilarity;
 import de.di.similarity_measures.Jaccard;
+import de.di.similarity_measures.JaroWinkler;
 import de.di.similarity_measures.Levenshtein;
+import de.di.similarity_measures.LocalitySensitiveHashingIndex;
+import de.di.similarity_measures.helper.PreparedValue;
 import de.di.similarity_measures.helper.Tokenizer;
+import de.di.structures.TypedColumn;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -18,6 +23,7 @@ public class SortedNeighborhood {
     private static class Record {
         private int index;
         private String[] values;
+        private PreparedValue[] preparedValues;
     }
 
     /**
@@ -28,7 +34,8 @@ public class SortedNeighborhood {
      * the provided recordComparator is equal to or greater than the similarityThreshold.
      * @param relation The relation, in which duplicates should be detected.
      * @param sortingKeys The sorting keys that should be used; a sorting key corresponds to an attribute index, whose
-     *                    lexicographical order should determine a sortation; every specificed sorting key corresponds
+     *                    lexicographical order should determine a sortation, or its numerical or chronological order
+     *                    if the attribute is a typed column; every specificed sorting key corresponds
      *                    to one Sorted Neighborhood run and the union of all duplicates of all runs is the result of
      *                    the call.
      * @param windowSize The window size each Sorted Neighborhood run should use.
@@ -38,17 +45,25 @@ public class SortedNeighborhood {
     public Set<Duplicate> detectDuplicates(Relation relation, int[] sortingKeys, int windowSize, RecordComparator recordComparator) {
         Set<Duplicate> duplicates = new HashSet<>();
 
-        Record[] records = new Record[relation.getRecords().length];
-        for (int i = 0; i < relation.getRecords().length; i++) {
-            records[i] = new Record(i, relation.getRecords()[i]);
+        // Every record is prepared once, so that the comparisons in all windows of all runs reuse its features
+        PreparedValue[][] preparedRecords = recordComparator.prepare(relation);
+        String[][] relationRecords = relation.getRecords();
+        Record[] records = new Record[relationRecords.length];
+        for (int i = 0; i < relationRecords.length; i++) {
+            records[i] = new Record(i, relationRecords[i], preparedRecords[i]);
         }
 
+        TypedColumn[] typedColumns = relation.getTypedColumns();
         for (int sortingKey : sortingKeys) {
-            Arrays.sort(records, Comparator.comparing(record -> record.getValues()[sortingKey]));
+            TypedColumn typedColumn = typedColumns[sortingKey];
+            if (typedColumn.isTyped())
+                Arrays.sort(records, (record1, record2) -> typedColumn.compare(record1.getIndex(), record2.getIndex()));
+            else
+                Arrays.sort(records, Comparator.comparing(record -> record.getValues()[sortingKey]));
 
             for (int i = 0; i < records.length; i++) {
                 for (int j = i + 1; j < i + windowSize && j < records.length; j++) {
-                    double similarity = recordComparator.compare(records[i].getValues(), records[j].getValues());
+                    double similarity = recordComparator.compareBounded(records[i].getPreparedValues(), records[j].getPreparedValues());
                     if (recordComparator.isDuplicate(similarity)) {
                         duplicates.add(new Duplicate(records[i].getIndex(), records[j].getIndex(), similarity, relation));
                     }
@@ -60,7 +75,49 @@ public class SortedNeighborhood {
     }
 
     /**
-     * Suggests a RecordComparator instance based on the provided relation for duplicate detection purposes.
+     * Discovers duplicates in the relation without a sliding window: The values of the blockingAttributes of every
+     * record are joined into one blocking key and inserted into the given (empty) LSH index, and only the candidate
+     * pairs of the index, i.e., records with similar blocking keys, are compared with the recordComparator. This finds
+     * near-duplicates that are sorted far apart by every sorting key, at the cost of missing duplicates whose blocking
+     * keys are dissimilar.
+     * @param relation The relation, in which duplicates should be detected.
+     * @param blockingAttributes The indexes of the attributes whose values form the blocking keys.
+     * @param index The empty LSH index that should be used for the candidate generation; its ids become the record
+     *              indexes of the relation.
+     * @param recordComparator The record comparator that should be used when comparing candidate records.
+     * @return The list of discovered duplicate pairs.
+     * @throws IllegalArgumentException If the index is not empty.
+     */
+    public Set<Duplicate> detectDuplicates(Relation relation, int[] blockingAttributes, LocalitySensitiveHashingIndex index, RecordComparator recordComparator) {
+        if (index.size() != 0)
+            throw new IllegalArgumentException("The LSH index must be empty, but holds " + index.size() + " values.");
+
+        Set<Duplicate> duplicates = new HashSet<>();
+
+        String[][] records = relation.getRecords();
+        StringBuilder blockingKey = new StringBuilder();
+        for (String[] record : records) {
+            blockingKey.setLength(0);
+            for (int attribute : blockingAttributes)
+                blockingKey.append(record[attribute]).append(' ');
+            index.add(blockingKey.toString());
+        }
+
+        PreparedValue[][] preparedRecords = recordComparator.prepare(relation);
+        for (int[] pair : index.candidatePairs()) {
+            double similarity = recordComparator.compareBounded(preparedRecords[pair[0]], preparedRecords[pair[1]]);
+            if (recordComparator.isDuplicate(similarity))
+                duplicates.add(new Duplicate(pair[0], pair[1], similarity, relation));
+        }
+
+        return duplicates;
+    }
+
+    /**
+     * Suggests a RecordComparator instance based on the provided relation for duplicate detection purposes. The
+     * attribute names select the similarity measures: "string" uses Levenshtein, "tokenized_string" uses Jaccard,
+     * "name" uses Jaro-Winkler for short names, and "prefix_string" and "suffix_string" compare common affixes; all
+     * other attributes use Levenshtein.
      * @param relation The relation a RecordComparator needs to be suggested for.
      * @return A RecordComparator instance for comparing records of the provided relation.
      */
@@ -78,6 +135,15 @@ public class SortedNeighborhood {
                 case "tokenized_string":
                     attrSimWeight = new AttrSimWeight(i, new Jaccard(new Tokenizer(3)), 0.2);
                     break;
+                case "name":
+                    attrSimWeight = new AttrSimWeight(i, new JaroWinkler(), 0.1);
+                    break;
+                case "prefix_string":
+                    attrSimWeight = new AttrSimWeight(i, new AffixSimilarity(AffixSimilarity.Affix.PREFIX), 0.1);
+                    break;
+                case "suffix_string":
+                    attrSimWeight = new AttrSimWeight(i, new AffixSimilarity(AffixSimilarity.Affix.SUFFIX), 0.1);
+                    break;
                 default:
                     attrSimWeight = new AttrSimWeight(i, new Levenshtein(), 0.1);
                     break;
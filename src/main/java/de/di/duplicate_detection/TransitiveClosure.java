@@ -24,7 +24,7 @@ public class TransitiveClosure {
             return duplicates;
 
         Relation relation = duplicates.iterator().next().getRelation();
-        int numRecords = relation.getRecords().length;
+        int numRecords = relation.getNumRecords();
 
         boolean[][] adjMatrix = new boolean[numRecords][numRecords];
 
@@ -0,0 +1,80 @@
+package de.di.helper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * CompressedInput opens compressed CSV files for reading, so that they can be loaded without decompressing them to disk
+ * first. The codec of a file is chosen by its file extension; gzip is supported out of the box and further codecs, e.g.,
+ * for zstd, can be registered with registerCodec(). Decompression runs on its own thread and feeds the reader through a
+ * bounded PipelinedInputStream, so that decompressing and parsing overlap.
+ */
+public class CompressedInput {
+
+    /**
+     * A Codec wraps a stream of compressed bytes into a stream of decompressed bytes.
+     */
+    @FunctionalInterface
+    public interface Codec {
+        InputStream decompress(InputStream compressed) throws IOException;
+    }
+
+    // The registered codecs by the file extensions they are used for.
+    private static final Map<String, Codec> CODECS = new ConcurrentHashMap<>(Map.of(".gz", compressed -> new GZIPInputStream(compressed, 1 << 16)));
+
+    /**
+     * Registers a codec for all files with the given extension.
+     * @param extension The file extension including the dot, e.g., ".zst".
+     * @param codec The codec that decompresses such files.
+     */
+    public static void registerCodec(String extension, Codec codec) {
+        CODECS.put(extension, codec);
+    }
+
+    /**
+     * Checks whether the given file is compressed with a registered codec.
+     * @param filePath The path of the file.
+     * @return true if the file has the extension of a registered codec.
+     */
+    public static boolean isCompressed(Path filePath) {
+        return codecFor(filePath) != null;
+    }
+
+    private static Codec codecFor(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return (dot < 0) ? null : CODECS.get(fileName.substring(dot));
+    }
+
+    /**
+     * Opens the given file for reading; compressed files are decompressed on a separate thread.
+     * @param filePath The path of the file.
+     * @param charset The charset of the (decompressed) file.
+     * @return A reader over the decompressed characters of the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static BufferedReader newReader(Path filePath, Charset charset) throws IOException {
+        Codec codec = codecFor(filePath);
+        if (codec == null)
+            return Files.newBufferedReader(filePath, charset);
+
+        InputStream compressed = Files.newInputStream(filePath);
+        InputStream decompressed;
+        try {
+            decompressed = codec.decompress(compressed);
+        } catch (IOException | RuntimeException e) {
+            compressed.close();
+            throw e;
+        }
+        InputStream pipeline = new PipelinedInputStream(decompressed, "decompress-" + filePath.getFileName());
+        return new BufferedReader(new InputStreamReader(pipeline, charset.newDecoder()), 1 << 16);
+    }
+}
@@ -0,0 +1,226 @@
+package de.di.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A CsvLineParser splits the lines of a CSV file into fields. It follows exactly the rules of the opencsv CSVParser that
+ * Relation has always been configured with, i.e., '"' as quote character, '\' as escape character, no strict quotes, no
+ * ignored leading whitespace, and unquoted empty fields as null. A record may span several lines if a quoted field
+ * contains line breaks; such line breaks are read as '\n'. The parser works on plain char arrays and reuses its
+ * buffers, so it can be fed from any kind of input without creating intermediate line strings. With a projection, the
+ * parser creates strings only for the projected fields and skips all other fields.
+ */
+public class CsvLineParser {
+
+    public static final char QUOTE_CHAR = '"';
+    public static final char ESCAPE_CHAR = '\\';
+
+    // The character that separates the fields of a record.
+    private final char separator;
+
+    // The fields of the record that is currently being parsed.
+    private final List<String> fields = new ArrayList<>();
+
+    // The characters of the field that is currently being parsed.
+    private char[] field = new char[64];
+    private int fieldLength = 0;
+
+    // A flag indicating that the current record continues on the next line, because a quoted field is still open.
+    private boolean pending = false;
+
+    // A flag that is carried between the characters of a field in the same way as opencsv does.
+    private boolean inField = false;
+
+    // The position of every field of the input in the projected record or -1 if the field is skipped; null if all
+    // fields are kept.
+    private int[] projectionTargets;
+
+    // The projected fields of the record that is currently being parsed.
+    private String[] projectedFields;
+
+    // The index of the field that is currently being parsed.
+    private int fieldIndex = 0;
+
+    public CsvLineParser(final char separator) {
+        this.separator = separator;
+    }
+
+    /**
+     * Restricts the records returned by this parser to the given fields, in the given order. Fields that are missing
+     * in a record are returned as null.
+     * @param projection The indexes of the fields that should be kept or null to keep all fields.
+     */
+    public void setProjection(int[] projection) {
+        if (projection == null) {
+            this.projectionTargets = null;
+            this.projectedFields = null;
+            return;
+        }
+        int maxIndex = Arrays.stream(projection).max().orElse(-1);
+        this.projectionTargets = new int[maxIndex + 1];
+        Arrays.fill(this.projectionTargets, -1);
+        for (int i = 0; i < projection.length; i++) {
+            if (projection[i] < 0 || this.projectionTargets[projection[i]] != -1)
+                throw new IllegalArgumentException("Invalid projection " + Arrays.toString(projection) + ".");
+            this.projectionTargets[projection[i]] = i;
+        }
+        this.projectedFields = new String[projection.length];
+    }
+
+    /**
+     * Resolves the given attribute names to their indexes in the given header.
+     * @param header The header of a CSV file.
+     * @param attributes The names of the attributes that should be projected.
+     * @return The indexes of the attributes in the header.
+     */
+    public static int[] resolveProjection(String[] header, String[] attributes) {
+        int[] projection = new int[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            projection[i] = (header == null) ? -1 : Arrays.asList(header).indexOf(attributes[i]);
+            if (projection[i] < 0)
+                throw new IllegalArgumentException("Unknown attribute " + attributes[i] + " in header " + Arrays.toString(header) + ".");
+        }
+        return projection;
+    }
+
+    /**
+     * Projects the given record to the given fields; fields that are missing in the record are returned as null.
+     * @param record The record to be projected.
+     * @param projection The indexes of the fields that should be kept.
+     * @return The projected record.
+     */
+    public static String[] project(String[] record, int[] projection) {
+        String[] projected = new String[projection.length];
+        for (int i = 0; i < projection.length; i++)
+            projected[i] = (projection[i] < record.length) ? record[projection[i]] : null;
+        return projected;
+    }
+
+    /**
+     * Checks whether the given character is special for the CSV parsing, i.e., a quote, escape or separator character.
+     * @param c The character to check.
+     * @param separator The separator character of the CSV format.
+     * @return true if the character can be escaped in the CSV format.
+     */
+    public static boolean isEscapable(char c, char separator) {
+        return c == QUOTE_CHAR || c == ESCAPE_CHAR || c == separator;
+    }
+
+    /**
+     * Parses one line of the input; the line must not contain its line terminator.
+     * @param line The buffer holding the line.
+     * @param from The index of the first character of the line in the buffer.
+     * @param to The index after the last character of the line in the buffer.
+     * @return true if the record is complete after this line and false if it continues on the next line.
+     */
+    public boolean parseLine(final char[] line, final int from, final int to) {
+        boolean inQuotes = this.pending;
+        boolean fromQuotedField = false;
+        this.pending = false;
+
+        int i = from;
+        while (i < to) {
+            char c = line[i++];
+            if (c == ESCAPE_CHAR) {
+                this.inField = true;
+                if (i < to && isEscapable(line[i], this.separator))
+                    this.append(line[i++]);
+            } else if (c == QUOTE_CHAR) {
+                if ((inQuotes || this.inField) && i < to && line[i] == QUOTE_CHAR) {
+                    this.append(line[i++]);
+                } else {
+                    inQuotes = !inQuotes;
+                    if (this.fieldLength == 0)
+                        fromQuotedField = true;
+
+                    // A quote in the middle of an unquoted field, such as in a,bc"d"ef,g, is kept as a character
+                    if (i - from > 3 && line[i - 2] != this.separator && i < to && line[i] != this.separator)
+                        this.append(c);
+                }
+                this.inField = !this.inField;
+            } else if (c == this.separator && !inQuotes) {
+                this.addField(fromQuotedField);
+                fromQuotedField = false;
+                this.inField = false;
+            } else {
+                this.append(c);
+                this.inField = true;
+                fromQuotedField = true;
+            }
+        }
+
+        if (inQuotes) {
+            this.append('\n');
+            this.pending = true;
+            return false;
+        }
+
+        this.inField = false;
+        this.addField(fromQuotedField);
+        return true;
+    }
+
+    /**
+     * Checks whether the current record continues on the next line.
+     * @return true if a quoted field is still open.
+     */
+    public boolean isPending() {
+        return this.pending;
+    }
+
+    /**
+     * Returns the fields of the record that was completed by the last parseLine() call and resets the parser for the
+     * next record.
+     * @return The fields of the completed record.
+     */
+    public String[] takeRecord() {
+        return this.takeRecord(null);
+    }
+
+    /**
+     * Returns the fields of the record that was completed by the last parseLine() call and resets the parser for the
+     * next record. The fields are written into the given array if its length matches the number of fields.
+     * @param reuse An array that may be overwritten with the fields, or null.
+     * @return The fields of the completed record; either the reuse array or a new array.
+     */
+    public String[] takeRecord(String[] reuse) {
+        this.fieldIndex = 0;
+        if (this.projectedFields != null) {
+            String[] record = (reuse != null && reuse.length == this.projectedFields.length) ? reuse : new String[this.projectedFields.length];
+            System.arraycopy(this.projectedFields, 0, record, 0, record.length);
+            Arrays.fill(this.projectedFields, null);
+            return record;
+        }
+        String[] record = (reuse != null && reuse.length == this.fields.size()) ? reuse : new String[this.fields.size()];
+        record = this.fields.toArray(record);
+        this.fields.clear();
+        return record;
+    }
+
+    private void addField(boolean fromQuotedField) {
+        if (this.projectionTargets == null) {
+            this.fields.add(this.takeField(fromQuotedField));
+        } else if (this.fieldIndex < this.projectionTargets.length && this.projectionTargets[this.fieldIndex] >= 0) {
+            this.projectedFields[this.projectionTargets[this.fieldIndex]] = this.takeField(fromQuotedField);
+        } else {
+            this.fieldLength = 0;
+        }
+        this.fieldIndex++;
+    }
+
+    private void append(char c) {
+        if (this.fieldLength == this.field.length)
+            this.field = Arrays.copyOf(this.field, 2 * this.field.length);
+        this.field[this.fieldLength++] = c;
+    }
+
+    private String takeField(boolean fromQuotedField) {
+        if (this.fieldLength == 0 && !fromQuotedField)
+            return null;
+        String value = new String(this.field, 0, this.fieldLength);
+        this.fieldLength = 0;
+        return value;
+    }
+}
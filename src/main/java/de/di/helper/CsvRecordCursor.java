@@ -0,0 +1,231 @@
+package de.di.helper;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A CsvRecordCursor streams the records of a CSV file one after another without ever holding more than the current
+ * record in memory. It parses the file with the same rules and options as Relation(Path, boolean, char, Charset), i.e.,
+ * it yields the same attributes and the same records, including empty strings for unquoted empty fields. The cursor
+ * reuses its character buffer and its record array: The array returned by next() is overwritten by the following call
+ * if the next record has the same number of fields, so callers that keep records must clone them. This allows
+ * single-pass algorithms to run over files that are larger than the heap. Compressed files are decompressed on the fly,
+ * see CompressedInput.
+ */
+public class CsvRecordCursor implements Closeable {
+
+    // The reader that delivers the characters of the file.
+    private final Reader reader;
+
+    // The parser that splits the lines into fields.
+    private final CsvLineParser parser;
+
+    // The attribute names of the file; read from the header or numbered if the file has no header.
+    @Getter
+    private final String[] attributes;
+
+    // The buffer of characters read from the file; the unread characters are buffer[position, limit).
+    private char[] buffer = new char[1 << 16];
+    private int position = 0;
+    private int limit = 0;
+
+    // A flag indicating that the last line ended with '\r', so a directly following '\n' belongs to it.
+    private boolean skipLineFeed = false;
+
+    // A flag indicating that the end of the file has been reached.
+    private boolean endOfFile = false;
+
+    // The record that is returned by the next call of next(), if it has already been read.
+    private String[] peeked;
+
+    // The array that is reused for the records.
+    private String[] record;
+
+    public CsvRecordCursor(Path filePath, boolean hasHeader, char separator, Charset charset) throws IOException {
+        this(filePath, hasHeader, separator, charset, null, null);
+    }
+
+    /**
+     * Creates a cursor that yields only the given fields of every record; all other fields are skipped during parsing.
+     * @param projection The indexes of the fields that should be read, in the order they should be returned.
+     */
+    public CsvRecordCursor(Path filePath, boolean hasHeader, char separator, Charset charset, int[] projection) throws IOException {
+        this(filePath, hasHeader, separator, charset, projection, null);
+    }
+
+    /**
+     * Creates a cursor that yields only the given attributes of every record of a file with header.
+     * @param projectedAttributes The names of the attributes that should be read, in the order they should be returned.
+     */
+    public CsvRecordCursor(Path filePath, char separator, Charset charset, String[] projectedAttributes) throws IOException {
+        this(filePath, true, separator, charset, null, projectedAttributes);
+    }
+
+    private CsvRecordCursor(Path filePath, boolean hasHeader, char separator, Charset charset, int[] projection, String[] projectedAttributes) throws IOException {
+        this.reader = CompressedInput.newReader(filePath, charset);
+        this.parser = new CsvLineParser(separator);
+
+        try {
+            if (hasHeader) {
+                String[] header = this.readRecord(null);
+                if (projectedAttributes != null)
+                    projection = CsvLineParser.resolveProjection(header, projectedAttributes);
+                if (header != null && projection != null)
+                    header = CsvLineParser.project(header, projection);
+                this.parser.setProjection(projection);
+                this.attributes = header;
+            } else {
+                this.parser.setProjection(projection);
+                this.peeked = this.readRecord(null);
+                if (this.peeked != null) {
+                    this.replaceNulls(this.peeked);
+                    this.attributes = new String[this.peeked.length];
+                    for (int i = 0; i < this.peeked.length; i++)
+                        this.attributes[i] = String.valueOf((projection == null) ? i : projection[i]);
+                } else {
+                    this.attributes = null;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            this.reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next record of the file.
+     * @return The next record or null if all records have been read; the array may be reused by later calls.
+     * @throws IOException If the file cannot be read or ends within a quoted field.
+     */
+    public String[] next() throws IOException {
+        if (this.peeked != null) {
+            this.record = this.peeked;
+            this.peeked = null;
+            return this.record;
+        }
+        String[] next = this.readRecord(this.record);
+        if (next == null)
+            return null;
+        this.replaceNulls(next);
+        this.record = next;
+        return next;
+    }
+
+    /**
+     * Returns a sequential stream over the remaining records of the file. As with next(), the record arrays may be
+     * reused, so the stream should be consumed with single-pass operations, e.g., forEach or reduce. I/O errors are
+     * thrown as UncheckedIOException.
+     * @return A stream over the remaining records.
+     */
+    public Stream<String[]> stream() {
+        Spliterator<String[]> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String[]> action) {
+                try {
+                    String[] next = CsvRecordCursor.this.next();
+                    if (next == null)
+                        return false;
+                    action.accept(next);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private void replaceNulls(String[] record) {
+        for (int i = 0; i < record.length; i++)
+            if (record[i] == null)
+                record[i] = "";
+    }
+
+    private String[] readRecord(String[] reuse) throws IOException {
+        boolean anyLine = false;
+        while (true) {
+            // Find the end of the next line in the buffer
+            int lineEnd = -1;
+            int scanned = 0;
+            while (lineEnd < 0) {
+                if (this.skipLineFeed && this.position < this.limit) {
+                    if (this.buffer[this.position] == '\n')
+                        this.position++;
+                    this.skipLineFeed = false;
+                }
+                for (int i = this.position + scanned; i < this.limit; i++) {
+                    if (this.buffer[i] == '\n' || this.buffer[i] == '\r') {
+                        lineEnd = i;
+                        break;
+                    }
+                }
+                scanned = this.limit - this.position;
+                if (lineEnd < 0 && !this.fill())
+                    break;
+            }
+
+            if (lineEnd < 0) {
+                // The last line of the file has no line terminator
+                if (this.position == this.limit) {
+                    if (this.parser.isPending())
+                        throw new IOException("Unterminated quoted field at the end of the file.");
+                    return anyLine ? this.parser.takeRecord(reuse) : null;
+                }
+                lineEnd = this.limit;
+            }
+
+            anyLine = true;
+            boolean complete = this.parser.parseLine(this.buffer, this.position, lineEnd);
+            if (lineEnd < this.limit) {
+                this.skipLineFeed = this.buffer[lineEnd] == '\r';
+                this.position = lineEnd + 1;
+            } else {
+                this.position = lineEnd;
+            }
+            if (complete)
+                return this.parser.takeRecord(reuse);
+        }
+    }
+
+    /**
+     * Reads more characters into the buffer, keeping the unread ones; grows the buffer if a line does not fit.
+     * @return false if the end of the file has been reached.
+     */
+    private boolean fill() throws IOException {
+        if (this.endOfFile)
+            return false;
+        if (this.position > 0) {
+            System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+            this.limit -= this.position;
+            this.position = 0;
+        }
+        if (this.limit == this.buffer.length) {
+            char[] grown = new char[2 * this.buffer.length];
+            System.arraycopy(this.buffer, 0, grown, 0, this.limit);
+            this.buffer = grown;
+        }
+        int read = this.reader.read(this.buffer, this.limit, this.buffer.length - this.limit);
+        if (read < 0) {
+            this.endOfFile = true;
+            return false;
+        }
+        this.limit += read;
+        return true;
+    }
+}
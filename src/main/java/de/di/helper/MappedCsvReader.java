@@ -0,0 +1,325 @@
+package de.di.helper;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A MappedCsvReader reads an entire CSV file with the parsing rules of the CsvLineParser. The file is memory-mapped and
+ * read in two phases: A first, sequential pass runs only the quote state machine over the raw bytes to find the byte
+ * offsets at which records start; it respects quoted line breaks and escaped quotes. A second pass then decodes and
+ * parses the records in parallel and writes every record directly into its final position of the result array.
+ * Splitting on raw bytes requires a charset, in which the separator, quote, escape and line break characters are
+ * single bytes that never occur inside multi-byte sequences; use supports() to check this.
+ */
+public class MappedCsvReader {
+
+    // The size of the mapped file segments; a single mapping cannot exceed 2 GB.
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    // The character that separates the fields of a record.
+    private final char separator;
+
+    // The charset of the file.
+    private final Charset charset;
+
+    // The number of threads that parse records in parallel.
+    private final int parallelism;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Content {
+
+        // The first record of the file if it has a header, otherwise null.
+        private final String[] header;
+
+        // All (other) records of the file.
+        private final String[][] records;
+    }
+
+    public MappedCsvReader(final char separator, final Charset charset, final int parallelism) {
+        this.separator = separator;
+        this.charset = charset;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Checks whether a file with the given separator and charset can be split on its raw bytes.
+     * @param separator The separator character of the file.
+     * @param charset The charset of the file.
+     * @return true if the MappedCsvReader can read such files.
+     */
+    public static boolean supports(char separator, Charset charset) {
+        if (separator >= 0x80 || separator == '\n' || separator == '\r')
+            return false;
+        String name = charset.name();
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) ||
+                name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+    }
+
+    /**
+     * Reads all records of the given file. Unquoted empty fields of the records are returned as empty strings; the
+     * fields of the header keep the null values of the parser.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader A flag indicating whether the first record is the header of the file.
+     * @return The header and the records of the file.
+     * @throws IOException If the file cannot be read, is not properly encoded, or ends within a quoted field.
+     */
+    public Content read(Path filePath, boolean hasHeader) throws IOException {
+        return this.read(filePath, hasHeader, null, null);
+    }
+
+    /**
+     * Reads the given fields of all records of the given file; all other fields are skipped during parsing. Fields that
+     * are missing in a record are returned as empty strings.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader A flag indicating whether the first record is the header of the file.
+     * @param projection The indexes of the fields that should be read, in the order they should be returned.
+     * @return The projected header and records of the file.
+     * @throws IOException If the file cannot be read, is not properly encoded, or ends within a quoted field.
+     */
+    public Content read(Path filePath, boolean hasHeader, int[] projection) throws IOException {
+        return this.read(filePath, hasHeader, projection, null);
+    }
+
+    /**
+     * Reads the given attributes of all records of the given file, which must have a header; all other fields are
+     * skipped during parsing.
+     * @param filePath The path of the CSV file.
+     * @param projectedAttributes The names of the attributes that should be read, in the order they should be returned.
+     * @return The projected header and records of the file.
+     * @throws IOException If the file cannot be read, is not properly encoded, or ends within a quoted field.
+     */
+    public Content read(Path filePath, String[] projectedAttributes) throws IOException {
+        return this.read(filePath, true, null, projectedAttributes);
+    }
+
+    private Content read(Path filePath, boolean hasHeader, int[] projection, String[] projectedAttributes) throws IOException {
+        ByteBuffer[] segments = this.map(filePath);
+        long size = 0;
+        for (ByteBuffer segment : segments)
+            size += segment.limit();
+
+        long[] recordOffsets = this.findRecordOffsets(segments, size);
+        int numRecords = recordOffsets.length - 1;
+
+        String[] header = null;
+        int firstRecord = 0;
+        if (hasHeader && numRecords > 0) {
+            header = new RecordParser(segments, null).parse(recordOffsets[0], recordOffsets[1]);
+            firstRecord = 1;
+        }
+        if (projectedAttributes != null)
+            projection = CsvLineParser.resolveProjection(header, projectedAttributes);
+        if (header != null && projection != null)
+            header = CsvLineParser.project(header, projection);
+
+        String[][] records = new String[numRecords - firstRecord][];
+        int numTasks = Math.min(this.parallelism, Math.max(1, records.length / 1024));
+        if (numTasks <= 1) {
+            this.parseRecords(segments, recordOffsets, firstRecord, numRecords, records, firstRecord, projection);
+            return new Content(header, records);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numTasks);
+        try {
+            List<Future<?>> futures = new ArrayList<>(numTasks);
+            for (int task = 0; task < numTasks; task++) {
+                int from = firstRecord + (int) ((long) records.length * task / numTasks);
+                int to = firstRecord + (int) ((long) records.length * (task + 1) / numTasks);
+                int offset = firstRecord;
+                int[] taskProjection = projection;
+                futures.add(executor.submit(() -> this.parseRecords(segments, recordOffsets, from, to, records, offset, taskProjection)));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return new Content(header, records);
+    }
+
+    private ByteBuffer[] map(Path filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int numSegments = (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+            ByteBuffer[] segments = new ByteBuffer[Math.max(1, numSegments)];
+            if (size == 0)
+                segments[0] = ByteBuffer.allocate(0);
+            for (int i = 0; i < numSegments; i++) {
+                long position = (long) i << SEGMENT_BITS;
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, size - position));
+                segments[i] = segment;
+            }
+            return segments;
+        }
+    }
+
+    private static byte byteAt(ByteBuffer[] segments, long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & SEGMENT_MASK));
+    }
+
+    /**
+     * Runs the quote state machine of the CsvLineParser over the raw bytes and records the offset of every record.
+     * @return The start offsets of all records followed by the size of the file.
+     */
+    private long[] findRecordOffsets(ByteBuffer[] segments, long size) throws IOException {
+        LongArrayList offsets = new LongArrayList();
+        if (size > 0)
+            offsets.add(0);
+
+        boolean inQuotes = false;
+        boolean inField = false;
+        for (long position = 0; position < size; position++) {
+            byte b = byteAt(segments, position);
+            if (b == '\n' || b == '\r') {
+                if (b == '\r' && position + 1 < size && byteAt(segments, position + 1) == '\n')
+                    position++;
+                if (!inQuotes) {
+                    inField = false;
+                    if (position + 1 < size)
+                        offsets.add(position + 1);
+                }
+            } else if (b == CsvLineParser.ESCAPE_CHAR) {
+                inField = true;
+                if (position + 1 < size && CsvLineParser.isEscapable((char) byteAt(segments, position + 1), this.separator))
+                    position++;
+            } else if (b == CsvLineParser.QUOTE_CHAR) {
+                if ((inQuotes || inField) && position + 1 < size && byteAt(segments, position + 1) == CsvLineParser.QUOTE_CHAR)
+                    position++;
+                else
+                    inQuotes = !inQuotes;
+                inField = !inField;
+            } else if (b == this.separator && !inQuotes) {
+                inField = false;
+            } else {
+                inField = true;
+            }
+        }
+        if (inQuotes)
+            throw new IOException("Unterminated quoted field at the end of the file.");
+
+        offsets.add(size);
+        return offsets.toLongArray();
+    }
+
+    private void parseRecords(ByteBuffer[] segments, long[] recordOffsets, int from, int to, String[][] records, int offset, int[] projection) {
+        RecordParser recordParser = new RecordParser(segments, projection);
+        try {
+            for (int recordIndex = from; recordIndex < to; recordIndex++) {
+                String[] record = recordParser.parse(recordOffsets[recordIndex], recordOffsets[recordIndex + 1]);
+                for (int i = 0; i < record.length; i++)
+                    if (record[i] == null)
+                        record[i] = "";
+                records[recordIndex - offset] = record;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A RecordParser decodes and parses single records of the mapped file; it reuses its buffers across records and is,
+     * therefore, meant to be used by one thread only.
+     */
+    private class RecordParser {
+
+        private final ByteBuffer[] segments;
+        private final CsvLineParser lineParser = new CsvLineParser(MappedCsvReader.this.separator);
+        private final CharsetDecoder decoder = MappedCsvReader.this.charset.newDecoder();
+        private byte[] bytes = new byte[1024];
+        private char[] chars = new char[1024];
+
+        private RecordParser(ByteBuffer[] segments, int[] projection) {
+            this.segments = segments;
+            this.lineParser.setProjection(projection);
+        }
+
+        private String[] parse(long start, long end) throws IOException {
+            int length = this.copy(start, end);
+            int numChars = this.decode(length);
+
+            int lineStart = 0;
+            for (int i = 0; i <= numChars; i++) {
+                if (i < numChars && this.chars[i] != '\n' && this.chars[i] != '\r')
+                    continue;
+                if (i == numChars && lineStart == numChars && lineStart > 0)
+                    break; // the terminator of the last line
+                this.lineParser.parseLine(this.chars, lineStart, i);
+                if (i < numChars - 1 && this.chars[i] == '\r' && this.chars[i + 1] == '\n')
+                    i++;
+                lineStart = i + 1;
+            }
+            return this.lineParser.takeRecord();
+        }
+
+        private int copy(long start, long end) {
+            int length = (int) (end - start);
+            if (this.bytes.length < length)
+                this.bytes = new byte[Math.max(length, 2 * this.bytes.length)];
+            int copied = 0;
+            while (copied < length) {
+                long position = start + copied;
+                ByteBuffer segment = this.segments[(int) (position >>> SEGMENT_BITS)];
+                int index = (int) (position & SEGMENT_MASK);
+                int count = Math.min(length - copied, segment.limit() - index);
+                segment.duplicate().position(index).get(this.bytes, copied, count);
+                copied += count;
+            }
+            return length;
+        }
+
+        private int decode(int length) throws CharacterCodingException {
+            if (this.chars.length < length)
+                this.chars = new char[Math.max(length, 2 * this.chars.length)];
+
+            // Pure ASCII content maps one byte to one char in all supported charsets
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++)
+                ascii = this.bytes[i] >= 0;
+            if (ascii) {
+                for (int i = 0; i < length; i++)
+                    this.chars[i] = (char) this.bytes[i];
+                return length;
+            }
+
+            CharBuffer out = CharBuffer.wrap(this.chars);
+            this.decoder.reset();
+            CoderResult result = this.decoder.decode(ByteBuffer.wrap(this.bytes, 0, length), out, true);
+            if (!result.isUnderflow())
+                result.throwException();
+            result = this.decoder.flush(out);
+            if (!result.isUnderflow())
+                result.throwException();
+            return out.position();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package de.di.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A PipelinedInputStream reads its source stream on a separate thread and hands the bytes over in chunks through a
+ * bounded queue. This decouples an expensive source, such as a decompressing stream, from the consumer: While the
+ * consumer parses one chunk, the producer thread already fills the next ones, and it blocks once the queue is full. The
+ * chunk buffers are recycled, so the pipeline allocates all of its memory up front. Errors of the source, including
+ * unchecked exceptions and errors, are rethrown to the consumer as IOExceptions after all bytes read before the error
+ * have been consumed. Closing the stream stops the producer and wakes up a consumer that waits for a chunk.
+ */
+public class PipelinedInputStream extends InputStream {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 18;
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * A buffer of the pipeline together with the number of valid bytes in it; a chunk with length -1 marks the end.
+     */
+    private static class Chunk {
+        private final byte[] data;
+        private int length;
+
+        private Chunk(int size) {
+            this.data = new byte[size];
+        }
+    }
+
+    // The chunk that marks the end of the stream; it is posted by the producer when it stops and by close().
+    private static final Chunk END = new Chunk(0);
+
+    static {
+        END.length = -1;
+    }
+
+    // The chunks that have been filled by the producer and wait to be consumed.
+    private final BlockingQueue<Chunk> filled;
+
+    // The chunks that have been consumed and can be filled again.
+    private final BlockingQueue<Chunk> free;
+
+    // The thread that reads the source stream.
+    private final Thread producer;
+
+    // The error that ended the source stream, if any.
+    private volatile IOException failure;
+
+    // The flag that is set when the consumer closes the stream.
+    private volatile boolean closed;
+
+    // The chunk that is currently being consumed and the position of the next byte in it.
+    private Chunk current;
+    private int position;
+
+    public PipelinedInputStream(InputStream source, String name) {
+        this(source, name, DEFAULT_CHUNK_SIZE, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Starts reading the given source stream on a new daemon thread.
+     * @param source The stream that should be read ahead; it is closed by the producer thread when it ends.
+     * @param name The name of the producer thread.
+     * @param chunkSize The size of each chunk in bytes.
+     * @param capacity The maximum number of chunks that are read ahead of the consumer.
+     */
+    public PipelinedInputStream(InputStream source, String name, int chunkSize, int capacity) {
+        // The filled queue can hold all chunks and the end markers of the producer and of close(), so posting an end
+        // marker never blocks
+        this.filled = new ArrayBlockingQueue<>(capacity + 3);
+        this.free = new ArrayBlockingQueue<>(capacity + 1);
+        for (int i = 0; i < capacity + 1; i++)
+            this.free.add(new Chunk(chunkSize));
+
+        this.producer = new Thread(() -> this.produce(source), name);
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    private void produce(InputStream source) {
+        try (source) {
+            while (true) {
+                Chunk chunk = this.free.take();
+                chunk.length = 0;
+                int read = 0;
+                while (chunk.length < chunk.data.length && (read = source.read(chunk.data, chunk.length, chunk.data.length - chunk.length)) >= 0)
+                    chunk.length += read;
+                if (chunk.length > 0)
+                    this.filled.put(chunk);
+                if (read < 0)
+                    break;
+            }
+        } catch (IOException e) {
+            this.failure = e;
+        } catch (InterruptedException e) {
+            // The consumer closed the stream
+        } catch (Throwable e) {
+            this.failure = new IOException("Reading the source stream failed.", e);
+        } finally {
+            this.filled.offer(END);
+        }
+    }
+
+    /**
+     * Makes the next chunk the current chunk if the current one is consumed.
+     * @return false if the end of the stream has been reached.
+     */
+    private boolean advance() throws IOException {
+        if (this.closed)
+            throw new IOException("The stream is closed.");
+        if (this.current != null && this.position < this.current.length)
+            return true;
+        if (this.current != null && this.current.length < 0) {
+            if (this.failure != null)
+                throw this.failure;
+            return false;
+        }
+        if (this.current != null)
+            this.free.add(this.current);
+        try {
+            this.current = this.filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        this.position = 0;
+        return this.advance();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.advance())
+            return -1;
+        return this.current.data[this.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0)
+            return 0;
+        if (!this.advance())
+            return -1;
+        int count = Math.min(length, this.current.length - this.position);
+        System.arraycopy(this.current.data, this.position, bytes, offset, count);
+        this.position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.producer.interrupt();
+        this.filled.offer(END);
+    }
+}
@@ -0,0 +1,227 @@
+package de.di.helper;
+
+import de.di.Relation;
+import de.di.structures.DictionaryColumn;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A RelationSnapshot is a compact binary, columnar copy of a Relation that was read from a CSV file. It is stored next
+ * to the CSV file and can be loaded much faster than the CSV file can be parsed, because it contains the dictionary
+ * encoding of all columns: Every column is stored as its dictionary of distinct values followed by the value codes of
+ * all records, which use 1, 2 or 4 bytes depending on the size of the dictionary. The header of a snapshot records the
+ * schema, the parse options and the size and modification time of the CSV file; a snapshot is only used if all of
+ * them still match. Snapshots are loaded via memory mapping: The codes of every column are copied in bulk from the page
+ * cache and then widened to int codes, and the loaded Relation keeps the dictionary-encoded columns without decoding
+ * them into records. All counts are checked against the bytes left in the snapshot before arrays are allocated for
+ * them, so that corrupt snapshots are rejected instead of exhausting the memory.
+ */
+public class RelationSnapshot {
+
+    public static final String FILE_EXTENSION = ".snapshot";
+
+    // The extension of a snapshot while it is written; it is moved to its final name when it is complete.
+    private static final String TEMP_EXTENSION = FILE_EXTENSION + ".tmp";
+
+    private static final int MAGIC = 0x44495253; // "DIRS"
+    private static final int VERSION = 1;
+
+    /**
+     * Returns the path of the snapshot that belongs to the given CSV file.
+     * @param filePath The path of the CSV file.
+     * @return The path of the snapshot file next to the CSV file.
+     */
+    public static Path snapshotPathFor(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + FILE_EXTENSION);
+    }
+
+    /**
+     * Checks whether the given file is a snapshot file or a snapshot file that is (or was left) in writing.
+     * @param filePath The path of the file to check.
+     * @return true if the file is a snapshot file.
+     */
+    public static boolean isSnapshot(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        return fileName.endsWith(FILE_EXTENSION) || fileName.endsWith(TEMP_EXTENSION);
+    }
+
+    /**
+     * Writes the snapshot of the given relation next to the CSV file that the relation was read from. Relations whose
+     * records do not all have one value per attribute cannot be stored in columnar form and are not written; relations
+     * that were read with a projection are not written either, because the snapshot would replace the full file.
+     * @param relation The relation that was read from the CSV file.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader The header flag that the relation was read with.
+     * @param separator The separator that the relation was read with.
+     * @param charset The charset that the relation was read with.
+     * @return true if the snapshot was written.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static boolean write(Relation relation, Path filePath, boolean hasHeader, char separator, Charset charset) throws IOException {
+        if (relation.getAttributes() == null || relation.isProjected() || !relation.isRectangular())
+            return false;
+
+        DictionaryColumn[] columns = relation.getEncodedColumns();
+        Path snapshotPath = snapshotPathFor(filePath);
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + TEMP_EXTENSION);
+        try {
+            writeColumns(relation, columns, filePath, tempPath, hasHeader, separator, charset);
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        return true;
+    }
+
+    private static void writeColumns(Relation relation, DictionaryColumn[] columns, Path filePath, Path tempPath, boolean hasHeader, char separator, Charset charset) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(Files.size(filePath));
+            out.writeLong(Files.getLastModifiedTime(filePath).toMillis());
+            out.writeBoolean(hasHeader);
+            out.writeChar(separator);
+            writeString(out, charset.name());
+
+            writeString(out, relation.getName());
+            out.writeInt(relation.getAttributes().length);
+            for (String attribute : relation.getAttributes())
+                writeString(out, attribute);
+            out.writeInt(relation.getNumRecords());
+
+            for (DictionaryColumn column : columns) {
+                out.writeInt(column.cardinality());
+                for (String value : column.getDictionary())
+                    writeString(out, value);
+                int width = codeWidth(column.cardinality());
+                for (int code : column.getCodes()) {
+                    if (width == 1)
+                        out.writeByte(code);
+                    else if (width == 2)
+                        out.writeShort(code);
+                    else
+                        out.writeInt(code);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the relation of the given CSV file from its snapshot, if a snapshot exists that was written for the current
+     * version of the CSV file with the same parse options.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader The header flag that the relation should be read with.
+     * @param separator The separator that the relation should be read with.
+     * @param charset The charset that the relation should be read with.
+     * @return The relation or null if there is no valid snapshot; truncated or corrupt snapshots are not valid.
+     * @throws IOException If the snapshot exists but cannot be read.
+     */
+    public static Relation read(Path filePath, boolean hasHeader, char separator, Charset charset) throws IOException {
+        Path snapshotPath = snapshotPathFor(filePath);
+        if (!Files.isRegularFile(snapshotPath) || !Files.isRegularFile(filePath))
+            return null;
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return null;
+            if (buffer.getLong() != Files.size(filePath) || buffer.getLong() != Files.getLastModifiedTime(filePath).toMillis())
+                return null;
+            if ((buffer.get() != 0) != hasHeader || buffer.getChar() != separator || !charset.name().equals(readString(buffer)))
+                return null;
+
+            String name = readString(buffer);
+            // Every string takes at least the 4 bytes of its length
+            String[] attributes = new String[checkedCount(buffer.getInt(), 4, buffer)];
+            for (int i = 0; i < attributes.length; i++)
+                attributes[i] = readString(buffer);
+            int numRecords = buffer.getInt();
+            if (numRecords < 0)
+                return null;
+
+            DictionaryColumn[] columns = new DictionaryColumn[attributes.length];
+            byte[] bytes = null;
+            short[] shorts = null;
+            for (int i = 0; i < columns.length; i++) {
+                String[] dictionary = new String[checkedCount(buffer.getInt(), 4, buffer)];
+                for (int j = 0; j < dictionary.length; j++)
+                    dictionary[j] = readString(buffer);
+
+                int width = codeWidth(dictionary.length);
+                int[] codes = new int[checkedCount(numRecords, width, buffer)];
+                if (width == 4) {
+                    buffer.asIntBuffer().get(codes);
+                } else if (width == 2) {
+                    shorts = (shorts == null) ? new short[numRecords] : shorts;
+                    buffer.asShortBuffer().get(shorts);
+                    for (int j = 0; j < numRecords; j++)
+                        codes[j] = shorts[j] & 0xFFFF;
+                } else {
+                    bytes = (bytes == null) ? new byte[numRecords] : bytes;
+                    buffer.get(bytes);
+                    for (int j = 0; j < numRecords; j++)
+                        codes[j] = bytes[j] & 0xFF;
+                }
+                if (width > 1)
+                    buffer.position(buffer.position() + width * numRecords);
+                columns[i] = new DictionaryColumn(dictionary, codes);
+            }
+            return new Relation(name, attributes, columns);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks that the buffer has enough bytes left for the given number of elements of the given minimum size.
+     * @return The count, if it is valid.
+     * @throws BufferUnderflowException If the count is negative or exceeds the bytes left in the buffer.
+     */
+    private static int checkedCount(int count, int minBytesPerElement, ByteBuffer buffer) {
+        if (count < 0 || (long) count * minBytesPerElement > buffer.remaining())
+            throw new BufferUnderflowException();
+        return count;
+    }
+
+    private static int codeWidth(int cardinality) {
+        if (cardinality <= 1 << 8)
+            return 1;
+        if (cardinality <= 1 << 16)
+            return 2;
+        return 4;
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        if (length > buffer.remaining())
+            throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package de.di.helper;
+
+/**
+ * A StringPool maps equal strings to one canonical instance, similar to String.intern(), but with a pool that is owned
+ * by the caller and can be discarded together with the data it was used for. The pool is an open-addressing hash table
+ * that stores the hash codes of its strings in a primitive int[] next to the references, so that most probes compare
+ * plain ints and touch the string contents only on a hash match.
+ */
+public class StringPool {
+
+    // The hash codes of the pooled strings; only valid where values[slot] != null.
+    private int[] hashes;
+
+    // The pooled strings; null marks an empty slot.
+    private String[] values;
+
+    // The number of pooled strings.
+    private int size = 0;
+
+    public StringPool() {
+        this(16);
+    }
+
+    public StringPool(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, 2 * expectedSize - 1)) << 1;
+        this.hashes = new int[capacity];
+        this.values = new String[capacity];
+    }
+
+    /**
+     * Returns the canonical instance of the given string, which is the first string equal to it that was passed to
+     * this pool.
+     * @param string The string to be pooled; may be null.
+     * @return The canonical instance of the string or null if the string is null.
+     */
+    public String intern(String string) {
+        if (string == null)
+            return null;
+
+        int hash = string.hashCode();
+        int mask = this.values.length - 1;
+        int slot = mix(hash) & mask;
+        while (this.values[slot] != null) {
+            if (this.hashes[slot] == hash && this.values[slot].equals(string))
+                return this.values[slot];
+            slot = (slot + 1) & mask;
+        }
+
+        this.hashes[slot] = hash;
+        this.values[slot] = string;
+        if (++this.size > this.values.length / 2)
+            this.grow();
+        return string;
+    }
+
+    /**
+     * Replaces all strings in the given array by their canonical instances.
+     * @param strings The strings to be pooled; the array is modified in place.
+     */
+    public void internAll(String[] strings) {
+        for (int i = 0; i < strings.length; i++)
+            strings[i] = this.intern(strings[i]);
+    }
+
+    /**
+     * Returns the number of distinct strings in this pool.
+     * @return The number of distinct strings in this pool.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void grow() {
+        int[] oldHashes = this.hashes;
+        String[] oldValues = this.values;
+        this.hashes = new int[2 * oldHashes.length];
+        this.values = new String[2 * oldValues.length];
+
+        int mask = this.values.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null)
+                continue;
+            int slot = mix(oldHashes[i]) & mask;
+            while (this.values[slot] != null)
+                slot = (slot + 1) & mask;
+            this.hashes[slot] = oldHashes[i];
+            this.values[slot] = oldValues[i];
+        }
+    }
+}
@@ -3,7 +3,9 @@ package de.di.schema_matching;
 import de.di.Relation;
 import de.di.schema_matching.structures.SimilarityMatrix;
 import de.di.similarity_measures.Jaccard;
+import de.di.similarity_measures.helper.TokenDictionary;
 import de.di.similarity_measures.helper.Tokenizer;
+import de.di.structures.DictionaryColumn;
 
 public class FirstLineSchemaMatcher {
 
@@ -17,8 +19,9 @@ public class FirstLineSchemaMatcher {
      * @return The similarity matrix that describes the attribute-to-attribute similarities of the two relations.
      */
     public SimilarityMatrix match(Relation sourceRelation, Relation targetRelation) {
-        String[][] sourceAttributes = sourceRelation.getColumns();
-        String[][] targetAttributes = targetRelation.getColumns();
+        // Set-based Jaccard only depends on the distinct values, so the column dictionaries suffice
+        DictionaryColumn[] sourceAttributes = sourceRelation.getEncodedColumns();
+        DictionaryColumn[] targetAttributes = targetRelation.getEncodedColumns();
 
 
         double[][] similarityScores = new double[sourceAttributes.length][targetAttributes.length];
@@ -28,9 +31,18 @@ public class FirstLineSchemaMatcher {
         Jaccard jaccard = new Jaccard(tokenizer, false);
 
 
+        // Map the values of both relations to shared ids once, so that every pair of columns is compared by a merge
+        TokenDictionary valueDictionary = new TokenDictionary();
+        int[][] sourceValueIds = new int[sourceAttributes.length][];
+        for (int sourceIndex = 0; sourceIndex < sourceAttributes.length; sourceIndex++)
+            sourceValueIds[sourceIndex] = valueDictionary.idsOf(sourceAttributes[sourceIndex].getDictionary());
+        int[][] targetValueIds = new int[targetAttributes.length][];
+        for (int targetIndex = 0; targetIndex < targetAttributes.length; targetIndex++)
+            targetValueIds[targetIndex] = valueDictionary.idsOf(targetAttributes[targetIndex].getDictionary());
+
         for (int sourceIndex = 0; sourceIndex < sourceAttributes.length; sourceIndex++) {
             for (int targetIndex = 0; targetIndex < targetAttributes.length; targetIndex++) {
-                similarityScores[sourceIndex][targetIndex] = jaccard.calculate(sourceAttributes[sourceIndex], targetAttributes[targetIndex]);
+                similarityScores[sourceIndex][targetIndex] = jaccard.calculate(sourceValueIds[sourceIndex], targetValueIds[targetIndex]);
             }
         }
 
@@ -0,0 +1,91 @@
+package de.di.similarity_measures;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+public class AffixSimilarity implements SimilarityMeasure {
+
+    /**
+     * The end of the strings that is compared: PREFIX compares the strings from their first characters on, SUFFIX from
+     * their last characters on.
+     */
+    public enum Affix {
+        PREFIX, SUFFIX
+    }
+
+    // The end of the strings whose common part is measured.
+    @Getter
+    private final Affix affix;
+
+    /**
+     * Calculates the affix similarity of the two input strings, i.e., the length of their longest common prefix (or
+     * suffix) divided by the length of the longer string. Two empty strings are equal and have the similarity 1.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The prefix (or suffix) similarity of the two arguments.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        int m = string1.length();
+        int n = string2.length();
+        if (m == 0 && n == 0)
+            return 1.0;
+
+        int length = Math.min(m, n);
+        int common = 0;
+        if (this.affix == Affix.PREFIX) {
+            while (common < length && string1.charAt(common) == string2.charAt(common))
+                common++;
+        } else {
+            while (common < length && string1.charAt(m - 1 - common) == string2.charAt(n - 1 - common))
+                common++;
+        }
+        return (double) common / Math.max(m, n);
+    }
+
+    /**
+     * Calculates the affix similarity of the two string lists, in which every list element is treated as one character.
+     * @param strings1 The first string list argument for the similarity calculation.
+     * @param strings2 The second string list argument for the similarity calculation.
+     * @return The prefix (or suffix) similarity of the two arguments.
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        int m = strings1.length;
+        int n = strings2.length;
+        if (m == 0 && n == 0)
+            return 1.0;
+
+        int length = Math.min(m, n);
+        int common = 0;
+        if (this.affix == Affix.PREFIX) {
+            while (common < length && strings1[common].equals(strings2[common]))
+                common++;
+        } else {
+            while (common < length && strings1[m - 1 - common].equals(strings2[n - 1 - common]))
+                common++;
+        }
+        return (double) common / Math.max(m, n);
+    }
+
+    /**
+     * Calculates the affix similarity of the two input strings if it can reach the given minimum similarity: The
+     * common part can be at most as long as the shorter string, so pairs whose length ratio is below minSimilarity are
+     * rejected without comparing any character.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param minSimilarity The similarity that the caller is interested in.
+     * @return The exact similarity if it can reach minSimilarity; otherwise the length ratio as upper bound.
+     */
+    @Override
+    public double calculate(final String string1, final String string2, final double minSimilarity) {
+        int maxLength = Math.max(string1.length(), string2.length());
+        if (maxLength > 0) {
+            double lengthRatio = (double) Math.min(string1.length(), string2.length()) / maxLength;
+            if (lengthRatio < minSimilarity)
+                return lengthRatio;
+        }
+        return this.calculate(string1, string2);
+    }
+}
@@ -0,0 +1,284 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.PreparedValue;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A CachedSimilarityMeasure memoizes the similarities of another SimilarityMeasure by their value pairs, so that value
+ * pairs that recur, e.g., the values of categorical attributes across the windows of duplicate detection, are
+ * calculated only once. The cache holds at most maxSize pairs and evicts the least recently used pairs first. It is
+ * split into segments with their own locks, so that concurrent callers rarely wait for each other; the eviction order
+ * is maintained per segment. The pairs are ordered, i.e., (a, b) and (b, a) are cached separately, because not every
+ * measure is symmetric. Calculations with a minimum similarity may return a bound for dissimilar pairs; such a bound
+ * is cached together with the minimum similarity that it was calculated for and is reused by all later calculations
+ * whose minimum similarity is at least as high, so that recurring dissimilar pairs are not calculated again either.
+ * Values are prepared by the cached measure. Token list similarities are not cached.
+ */
+public class CachedSimilarityMeasure implements SimilarityMeasure {
+
+    // The maximum number of segments of the cache.
+    private static final int MAX_SEGMENTS = 16;
+
+    // The minimum capacity of a segment; smaller caches use fewer segments, so that uneven segments do not evict early.
+    private static final int MIN_SEGMENT_SIZE = 256;
+
+    /**
+     * An ordered pair of values as the key of the cache.
+     */
+    private static final class ValuePair {
+        private final String value1;
+        private final String value2;
+        private final int hash;
+
+        private ValuePair(String value1, String value2) {
+            this.value1 = value1;
+            this.value2 = value2;
+            this.hash = 31 * Objects.hashCode(value1) + Objects.hashCode(value2);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ValuePair))
+                return false;
+            ValuePair pair = (ValuePair) o;
+            return this.hash == pair.hash && Objects.equals(this.value1, pair.value1) && Objects.equals(this.value2, pair.value2);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * A cached similarity: either the exact similarity of a pair or an upper bound that is smaller than the minimum
+     * similarity that it was calculated for.
+     */
+    private static final class CachedSimilarity {
+        private final double similarity;
+        // The minimum similarity that the bound was calculated for; negative infinity if the similarity is exact.
+        private final double minSimilarity;
+
+        private CachedSimilarity(double similarity, double minSimilarity) {
+            this.similarity = similarity;
+            this.minSimilarity = minSimilarity;
+        }
+
+        private boolean answers(double minSimilarity) {
+            return minSimilarity >= this.minSimilarity;
+        }
+    }
+
+    // The measure whose similarities are cached.
+    @Getter
+    private final SimilarityMeasure similarityMeasure;
+
+    // The maximum number of cached value pairs.
+    @Getter
+    private final int maxSize;
+
+    // The segments of the cache, each an LRU map that is guarded by its own monitor.
+    private final LinkedHashMap<ValuePair, CachedSimilarity>[] segments;
+
+    // The number of calculations that were answered from the cache.
+    private final LongAdder hits = new LongAdder();
+
+    // The number of calculations that were delegated to the cached measure.
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CachedSimilarityMeasure(final SimilarityMeasure similarityMeasure, final int maxSize) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("The cache size must be positive, but is " + maxSize + ".");
+
+        this.similarityMeasure = similarityMeasure;
+        this.maxSize = maxSize;
+        int numSegments = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE));
+        this.segments = new LinkedHashMap[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            // The first segments take the remainder, so that the capacities sum up to maxSize
+            int capacity = maxSize / numSegments + ((i < maxSize % numSegments) ? 1 : 0);
+            this.segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ValuePair, CachedSimilarity> eldest) {
+                    return this.size() > capacity;
+                }
+            };
+        }
+    }
+
+    private LinkedHashMap<ValuePair, CachedSimilarity> segmentOf(ValuePair pair) {
+        int hash = pair.hash ^ (pair.hash >>> 16);
+        return this.segments[(hash & 0x7FFFFFFF) % this.segments.length];
+    }
+
+    /**
+     * Returns the cached similarity of the two strings or calculates and caches it.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The similarity of the two arguments w.r.t. the cached measure.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        ValuePair pair = new ValuePair(string1, string2);
+        CachedSimilarity cached = this.lookup(pair, Double.NEGATIVE_INFINITY);
+        if (cached != null)
+            return cached.similarity;
+
+        double calculated = this.similarityMeasure.calculate(string1, string2);
+        this.store(pair, calculated, Double.NEGATIVE_INFINITY);
+        return calculated;
+    }
+
+    /**
+     * Returns the cached similarity of the two strings or calculates and caches it with the given minimum similarity.
+     * A cached bound is returned if it was calculated for a minimum similarity of at most minSimilarity.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param minSimilarity The similarity that the caller is interested in.
+     * @return The exact similarity if it is cached or at least minSimilarity; otherwise an upper bound of the
+     * similarity that is smaller than minSimilarity.
+     */
+    @Override
+    public double calculate(final String string1, final String string2, final double minSimilarity) {
+        ValuePair pair = new ValuePair(string1, string2);
+        CachedSimilarity cached = this.lookup(pair, minSimilarity);
+        if (cached != null)
+            return cached.similarity;
+
+        double calculated = this.similarityMeasure.calculate(string1, string2, minSimilarity);
+        this.store(pair, calculated, minSimilarity);
+        return calculated;
+    }
+
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        return this.similarityMeasure.calculate(strings1, strings2);
+    }
+
+    /**
+     * Prepares the input string with the cached measure, so that misses compare the prepared features.
+     * @param string The string that should be prepared.
+     * @return The string prepared by the cached measure.
+     */
+    @Override
+    public PreparedValue prepare(final String string) {
+        return this.similarityMeasure.prepare(string);
+    }
+
+    /**
+     * Returns the cached similarity of the two prepared values or calculates it on their prepared features and caches it.
+     * @param value1 The first prepared value for the similarity calculation.
+     * @param value2 The second prepared value for the similarity calculation.
+     * @return The similarity of the two arguments w.r.t. the cached measure.
+     */
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2) {
+        ValuePair pair = new ValuePair(value1.getValue(), value2.getValue());
+        CachedSimilarity cached = this.lookup(pair, Double.NEGATIVE_INFINITY);
+        if (cached != null)
+            return cached.similarity;
+
+        double calculated = this.similarityMeasure.calculate(value1, value2);
+        this.store(pair, calculated, Double.NEGATIVE_INFINITY);
+        return calculated;
+    }
+
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2, final double minSimilarity) {
+        ValuePair pair = new ValuePair(value1.getValue(), value2.getValue());
+        CachedSimilarity cached = this.lookup(pair, minSimilarity);
+        if (cached != null)
+            return cached.similarity;
+
+        double calculated = this.similarityMeasure.calculate(value1, value2, minSimilarity);
+        this.store(pair, calculated, minSimilarity);
+        return calculated;
+    }
+
+    private CachedSimilarity lookup(ValuePair pair, double minSimilarity) {
+        LinkedHashMap<ValuePair, CachedSimilarity> segment = this.segmentOf(pair);
+        CachedSimilarity cached;
+        synchronized (segment) {
+            cached = segment.get(pair);
+        }
+        if (cached != null && cached.answers(minSimilarity)) {
+            this.hits.increment();
+            return cached;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    private void store(ValuePair pair, double similarity, double minSimilarity) {
+        // Similarities that reach minSimilarity are exact; smaller ones are bounds that hold for minSimilarity and above
+        CachedSimilarity cached = new CachedSimilarity(similarity, (similarity < minSimilarity) ? minSimilarity : Double.NEGATIVE_INFINITY);
+        LinkedHashMap<ValuePair, CachedSimilarity> segment = this.segmentOf(pair);
+        synchronized (segment) {
+            CachedSimilarity existing = segment.get(pair);
+            // Another caller may have cached a similarity in the meantime that answers more calculations
+            if (existing == null || existing.minSimilarity > cached.minSimilarity)
+                segment.put(pair, cached);
+        }
+    }
+
+    /**
+     * Returns the number of calculations that were answered from the cache.
+     * @return The number of cache hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of calculations that were delegated to the cached measure.
+     * @return The number of cache misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the fraction of calculations that were answered from the cache.
+     * @return The hit rate in [0, 1]; 0 if nothing has been calculated yet.
+     */
+    public double getHitRate() {
+        long hits = this.getHits();
+        long total = hits + this.getMisses();
+        return (total == 0) ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of value pairs in the cache.
+     * @return The number of cached value pairs.
+     */
+    public int size() {
+        int size = 0;
+        for (LinkedHashMap<ValuePair, CachedSimilarity> segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all value pairs from the cache and resets the hit and miss counters.
+     */
+    public void clear() {
+        for (LinkedHashMap<ValuePair, CachedSimilarity> segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        this.hits.reset();
+        this.misses.reset();
+    }
+}
@@ -0,0 +1,205 @@
+package de.di.similarity_measures;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An EditDistanceIndex answers range queries ("all values within distance k of a string") and top-k queries ("the k
+ * values closest to a string") for the distance of a Levenshtein measure without scanning all values. The distinct
+ * values are organized in a BK-tree: every node stores a value, and its children are keyed by their Levenshtein
+ * distance to it. By the triangle inequality, a query q with distance d to a node can only reach values within radius
+ * r in children whose keys lie in [d - r, d + r], so all other subtrees are skipped. The tree is always built with the
+ * plain Levenshtein distance, which is a metric; for a measure with Damerau swaps (optimal string alignment), which
+ * violates the triangle inequality, the tree is searched with radius 2r, because every swap costs at most two plain
+ * edits, and the candidates are verified with the measure's bounded DP.
+ */
+public class EditDistanceIndex {
+
+    @Getter
+    @AllArgsConstructor
+    public static class Match {
+
+        // The index of the matched value in the indexed value array.
+        private final int index;
+
+        // The distance of the matched value to the query.
+        private final int distance;
+    }
+
+    // The measure whose distance semantics the queries use.
+    private final Levenshtein levenshtein;
+
+    // The metric that organizes the tree, i.e., the plain Levenshtein distance.
+    private final Levenshtein metric;
+
+    // The value of every node; node 0 is the root.
+    private final List<String> nodeValues = new ArrayList<>();
+
+    // The indexes of all values that are equal to the value of every node.
+    private final List<IntArrayList> nodeIndexes = new ArrayList<>();
+
+    // The first child, the next sibling, and the distance to the parent of every node; -1 if there is none.
+    private final IntArrayList firstChild = new IntArrayList();
+    private final IntArrayList nextSibling = new IntArrayList();
+    private final IntArrayList parentDistance = new IntArrayList();
+
+    /**
+     * Builds the index over the given values.
+     * @param levenshtein The measure whose (Damerau) Levenshtein distance the queries use.
+     * @param values The values that should be indexed; null values are not indexed.
+     */
+    public EditDistanceIndex(final Levenshtein levenshtein, final String[] values) {
+        this.levenshtein = levenshtein;
+        this.metric = new Levenshtein(false);
+
+        Object2IntOpenHashMap<String> nodesByValue = new Object2IntOpenHashMap<>();
+        nodesByValue.defaultReturnValue(-1);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null)
+                continue;
+            int node = nodesByValue.getInt(values[i]);
+            if (node < 0) {
+                node = this.insert(values[i]);
+                nodesByValue.put(values[i], node);
+            }
+            this.nodeIndexes.get(node).add(i);
+        }
+    }
+
+    private int insert(String value) {
+        int node = this.nodeValues.size();
+        this.nodeValues.add(value);
+        this.nodeIndexes.add(new IntArrayList(1));
+        this.firstChild.add(-1);
+        this.nextSibling.add(-1);
+        this.parentDistance.add(-1);
+        if (node == 0)
+            return node;
+
+        int parent = 0;
+        while (true) {
+            int distance = this.metric.distance(value, this.nodeValues.get(parent));
+            int child = this.childAt(parent, distance);
+            if (child < 0) {
+                this.parentDistance.set(node, distance);
+                this.nextSibling.set(node, this.firstChild.getInt(parent));
+                this.firstChild.set(parent, node);
+                return node;
+            }
+            parent = child;
+        }
+    }
+
+    private int childAt(int parent, int distance) {
+        for (int child = this.firstChild.getInt(parent); child >= 0; child = this.nextSibling.getInt(child))
+            if (this.parentDistance.getInt(child) == distance)
+                return child;
+        return -1;
+    }
+
+    /**
+     * Returns the number of distinct values in this index.
+     * @return The number of distinct values in this index.
+     */
+    public int size() {
+        return this.nodeValues.size();
+    }
+
+    /**
+     * Finds all values whose distance to the query is at most maxDistance.
+     * @param query The string that the values should be close to.
+     * @param maxDistance The maximum distance of the reported values.
+     * @return The matches ordered by distance and index.
+     */
+    public List<Match> rangeQuery(final String query, final int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (this.nodeValues.isEmpty() || maxDistance < 0)
+            return matches;
+
+        int radius = this.treeRadius(maxDistance);
+        IntArrayList stack = IntArrayList.of(0);
+        while (!stack.isEmpty()) {
+            int node = stack.popInt();
+            String value = this.nodeValues.get(node);
+            int distance = this.metric.distance(query, value);
+            if (distance <= radius) {
+                int verifiedDistance = this.levenshtein.isWithDamerau() ? this.levenshtein.distance(query, value, maxDistance) : distance;
+                if (verifiedDistance <= maxDistance)
+                    for (int index : this.nodeIndexes.get(node))
+                        matches.add(new Match(index, verifiedDistance));
+            }
+            for (int child = this.firstChild.getInt(node); child >= 0; child = this.nextSibling.getInt(child))
+                if (Math.abs(this.parentDistance.getInt(child) - distance) <= radius)
+                    stack.add(child);
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance).thenComparingInt(Match::getIndex));
+        return matches;
+    }
+
+    /**
+     * Finds the k values that are closest to the query. The search radius shrinks to the distance of the k-th best
+     * value found so far, and the closest subtrees are searched first.
+     * @param query The string that the values should be close to.
+     * @param k The number of values that should be reported.
+     * @return The at most k closest matches ordered by distance and index; ties at the k-th distance are broken by
+     * the smaller index.
+     */
+    public List<Match> topKQuery(final String query, final int k) {
+        // The k best matches so far, with the worst match at the head
+        Comparator<Match> order = Comparator.comparingInt(Match::getDistance).thenComparingInt(Match::getIndex);
+        PriorityQueue<Match> best = new PriorityQueue<>(order.reversed());
+        if (this.nodeValues.isEmpty() || k <= 0)
+            return new ArrayList<>(best);
+
+        // Nodes to visit together with the lower bound of the plain distance of their subtrees to the query
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+        queue.add(new long[]{0, 0});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int maxDistance = (best.size() < k) ? Integer.MAX_VALUE : best.peek().getDistance();
+            if (entry[0] > this.treeRadius(maxDistance))
+                break;
+
+            int node = (int) entry[1];
+            String value = this.nodeValues.get(node);
+            int distance = this.metric.distance(query, value);
+            int verifiedDistance = distance;
+            if (this.levenshtein.isWithDamerau())
+                verifiedDistance = (maxDistance == Integer.MAX_VALUE) ? this.levenshtein.distance(query, value) : this.levenshtein.distance(query, value, maxDistance);
+            if (verifiedDistance <= maxDistance) {
+                for (int index : this.nodeIndexes.get(node)) {
+                    Match match = new Match(index, verifiedDistance);
+                    if (best.size() < k) {
+                        best.add(match);
+                    } else if (order.compare(match, best.peek()) < 0) {
+                        best.poll();
+                        best.add(match);
+                    }
+                }
+            }
+
+            for (int child = this.firstChild.getInt(node); child >= 0; child = this.nextSibling.getInt(child))
+                queue.add(new long[]{Math.abs(this.parentDistance.getInt(child) - distance), child});
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(order);
+        return matches;
+    }
+
+    /**
+     * Translates a maximum distance of the measure into the search radius of the plain Levenshtein tree.
+     */
+    private int treeRadius(int maxDistance) {
+        if (!this.levenshtein.isWithDamerau() || maxDistance == Integer.MAX_VALUE)
+            return maxDistance;
+        return (int) Math.min(Integer.MAX_VALUE, 2L * maxDistance);
+    }
+}
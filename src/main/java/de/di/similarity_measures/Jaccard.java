@@ -1,10 +1,12 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.helper.PreparedValue;
 import de.di.similarity_measures.helper.Tokenizer;
 import lombok.AllArgsConstructor;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @AllArgsConstructor
@@ -31,12 +33,160 @@ public class Jaccard implements SimilarityMeasure {
      */
     @Override
     public double calculate(String string1, String string2) {
-        string1 = (string1 == null) ? "" : string1;
-        string2 = (string2 == null) ? "" : string2;
+        return this.calculate(this.tokenIdsOf(string1), this.tokenIdsOf(string2));
+    }
+
+    /**
+     * Calculates the Jaccard similarities of the query to all candidates; the query is tokenized once.
+     * @param query The string that is compared to all candidates.
+     * @param candidates The strings that the query is compared to.
+     * @return The (multiset) Jaccard similarities of the query to the candidates.
+     */
+    @Override
+    public double[] calculateOneToMany(final String query, final String[] candidates) {
+        int[] queryTokens = this.tokenIdsOf(query);
+        double[] similarities = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++)
+            similarities[i] = this.calculate(queryTokens, this.tokenIdsOf(candidates[i]));
+        return similarities;
+    }
+
+    /**
+     * Calculates the Jaccard similarity matrix of the two string arrays; every string is tokenized once.
+     * @param strings1 The strings of the rows.
+     * @param strings2 The strings of the columns.
+     * @param parallel The choice of whether the rows should be calculated in parallel.
+     * @return The similarity matrix, where matrix[i][j] = calculate(strings1[i], strings2[j]).
+     */
+    @Override
+    public double[][] calculateMatrix(final String[] strings1, final String[] strings2, final boolean parallel) {
+        int[][] tokens2 = new int[strings2.length][];
+        for (int j = 0; j < strings2.length; j++)
+            tokens2[j] = this.tokenIdsOf(strings2[j]);
+
+        double[][] matrix = new double[strings1.length][strings2.length];
+        IntStream rows = IntStream.range(0, strings1.length);
+        (parallel ? rows.parallel() : rows).forEach(i -> {
+            int[] tokens1 = this.tokenIdsOf(strings1[i]);
+            for (int j = 0; j < strings2.length; j++)
+                matrix[i][j] = this.calculate(tokens1, tokens2[j]);
+        });
+        return matrix;
+    }
+
+    /**
+     * Calculates the Jaccard similarities of the given pairs of values; every value is tokenized once.
+     * @param values The values that the pairs refer to.
+     * @param pairs The pairs as arrays {index1, index2} of indexes into values.
+     * @param parallel The choice of whether the pairs should be calculated in parallel.
+     * @return The similarities of the pairs in the order of the pairs.
+     */
+    @Override
+    public double[] calculatePairs(final String[] values, final List<int[]> pairs, final boolean parallel) {
+        int[][] tokens = new int[values.length][];
+        for (int[] pair : pairs) {
+            if (tokens[pair[0]] == null)
+                tokens[pair[0]] = this.tokenIdsOf(values[pair[0]]);
+            if (tokens[pair[1]] == null)
+                tokens[pair[1]] = this.tokenIdsOf(values[pair[1]]);
+        }
+
+        double[] similarities = new double[pairs.size()];
+        IntStream indexes = IntStream.range(0, pairs.size());
+        (parallel ? indexes.parallel() : indexes).forEach(k -> similarities[k] = this.calculate(tokens[pairs.get(k)[0]], tokens[pairs.get(k)[1]]));
+        return similarities;
+    }
 
-        String[] strings1 = this.tokenizer.tokenize(string1);
-        String[] strings2 = this.tokenizer.tokenize(string2);
-        return this.calculate(strings1, strings2);
+    /**
+     * Prepares the input string by looking up its token ids once.
+     * @param string The string that should be prepared.
+     * @return The prepared string with its sorted token ids.
+     */
+    @Override
+    public PreparedValue prepare(final String string) {
+        return new PreparedValue(string, this.tokenIdsOf(string));
+    }
+
+    /**
+     * Calculates the Jaccard similarity of the two prepared values on their token ids.
+     * @param value1 The first prepared value for the similarity calculation.
+     * @param value2 The second prepared value for the similarity calculation.
+     * @return The (multiset) Jaccard similarity of the two arguments.
+     */
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2) {
+        return this.calculate(value1.getTokenIds(), value2.getTokenIds());
+    }
+
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2, final double minSimilarity) {
+        return this.calculate(value1, value2);
+    }
+
+    private int[] tokenIdsOf(String string) {
+        return this.tokenizer.tokenizeToIds((string == null) ? "" : string);
+    }
+
+    /**
+     * Calculates the Jaccard similarity of the two sorted token id arrays, as they are created by a TokenStore or a
+     * TokenDictionary; see similarityOfSorted().
+     * @param tokens1 The first sorted token id array for the similarity calculation.
+     * @param tokens2 The second sorted token id array for the similarity calculation.
+     * @return The (multiset) Jaccard similarity of the two arguments.
+     */
+    public double calculate(int[] tokens1, int[] tokens2) {
+        return similarityOfSorted(tokens1, tokens2, this.bagSemantics);
+    }
+
+    /**
+     * Calculates the Jaccard similarity of two sorted token arrays. The intersection is counted by a single merge of
+     * both arrays, so the calculation needs no sets and no allocations; the similarity is the same as for the according
+     * token lists.
+     * @param tokens1 The first sorted token array for the similarity calculation.
+     * @param tokens2 The second sorted token array for the similarity calculation.
+     * @param bagSemantics The choice of whether repeated tokens are counted with their frequency.
+     * @return The (multiset) Jaccard similarity of the two arguments.
+     */
+    static double similarityOfSorted(int[] tokens1, int[] tokens2, boolean bagSemantics) {
+        int i = 0;
+        int j = 0;
+        if (bagSemantics) {
+            // Equal tokens are matched pairwise, which counts the minimum frequency of every token
+            int intersectionSize = 0;
+            while (i < tokens1.length && j < tokens2.length) {
+                if (tokens1[i] < tokens2[j]) {
+                    i++;
+                } else if (tokens1[i] > tokens2[j]) {
+                    j++;
+                } else {
+                    intersectionSize++;
+                    i++;
+                    j++;
+                }
+            }
+            return (double) intersectionSize / (tokens1.length + tokens2.length);
+        }
+
+        // Count every distinct token once
+        int intersectionSize = 0;
+        int unionSize = 0;
+        while (i < tokens1.length || j < tokens2.length) {
+            int token;
+            if (j == tokens2.length || (i < tokens1.length && tokens1[i] < tokens2[j])) {
+                token = tokens1[i];
+            } else if (i == tokens1.length || tokens1[i] > tokens2[j]) {
+                token = tokens2[j];
+            } else {
+                token = tokens1[i];
+                intersectionSize++;
+            }
+            unionSize++;
+            while (i < tokens1.length && tokens1[i] == token)
+                i++;
+            while (j < tokens2.length && tokens2[j] == token)
+                j++;
+        }
+        return (double) intersectionSize / unionSize;
     }
 
     /**
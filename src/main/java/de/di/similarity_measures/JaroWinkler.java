@@ -0,0 +1,199 @@
+package de.di.similarity_measures;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+@AllArgsConstructor
+public class JaroWinkler implements SimilarityMeasure {
+
+    // The maximum length of the common prefix that the Winkler boost rewards.
+    private static final int MAX_PREFIX_LENGTH = 4;
+
+    // The weight of every common prefix character in the Winkler boost; 0 calculates the plain Jaro similarity.
+    @Getter
+    private final double prefixScale;
+
+    // The Jaro similarity above which the Winkler boost is applied.
+    @Getter
+    private final double boostThreshold;
+
+    public JaroWinkler() {
+        this(0.1, 0.7);
+    }
+
+    /**
+     * The character and match-flag buffers of one thread; they grow with the longest strings seen and are reused by
+     * all calculations of the thread, so that the kernels do not allocate.
+     */
+    private static class Buffers {
+        private char[] chars1 = new char[64];
+        private char[] chars2 = new char[64];
+        private boolean[] flags1 = new boolean[64];
+        private boolean[] flags2 = new boolean[64];
+
+        private void ensureCapacity(int m, int n) {
+            if (this.chars1.length < m) {
+                this.chars1 = new char[Math.max(m, 2 * this.chars1.length)];
+                this.flags1 = new boolean[this.chars1.length];
+            }
+            if (this.chars2.length < n) {
+                this.chars2 = new char[Math.max(n, 2 * this.chars2.length)];
+                this.flags2 = new boolean[this.chars2.length];
+            }
+        }
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Calculates the Jaro-Winkler similarity of the two input strings. The Jaro similarity counts the characters that
+     * match within a window of half the longer length and the transpositions among them; the Winkler boost moves the
+     * similarity of strings with a common prefix of up to four characters towards 1. Two empty strings are equal and
+     * have the similarity 1.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The Jaro-Winkler similarity of the two arguments.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        int m = string1.length();
+        int n = string2.length();
+        if (m == 0 || n == 0)
+            return (m == n) ? 1.0 : 0.0;
+
+        Buffers buffers = BUFFERS.get();
+        buffers.ensureCapacity(m, n);
+        char[] chars1 = buffers.chars1;
+        char[] chars2 = buffers.chars2;
+        boolean[] flags1 = buffers.flags1;
+        boolean[] flags2 = buffers.flags2;
+        string1.getChars(0, m, chars1, 0);
+        string2.getChars(0, n, chars2, 0);
+        Arrays.fill(flags1, 0, m, false);
+        Arrays.fill(flags2, 0, n, false);
+
+        // Match every character with the first unmatched equal character within the window
+        int window = Math.max(0, Math.max(m, n) / 2 - 1);
+        int matches = 0;
+        for (int i = 0; i < m; i++) {
+            char c = chars1[i];
+            int to = Math.min(n, i + window + 1);
+            for (int j = Math.max(0, i - window); j < to; j++) {
+                if (!flags2[j] && chars2[j] == c) {
+                    flags1[i] = true;
+                    flags2[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0)
+            return 0.0;
+
+        // Count the matched characters that appear in a different order
+        int halfTranspositions = 0;
+        for (int i = 0, j = 0; i < m; i++) {
+            if (!flags1[i])
+                continue;
+            while (!flags2[j])
+                j++;
+            if (chars1[i] != chars2[j])
+                halfTranspositions++;
+            j++;
+        }
+
+        double jaro = this.jaro(matches, halfTranspositions, m, n);
+        if (jaro <= this.boostThreshold)
+            return jaro;
+        int prefix = 0;
+        while (prefix < Math.min(MAX_PREFIX_LENGTH, Math.min(m, n)) && chars1[prefix] == chars2[prefix])
+            prefix++;
+        return jaro + prefix * this.prefixScale * (1.0 - jaro);
+    }
+
+    /**
+     * Calculates the Jaro-Winkler similarity of the two string lists, in which every list element is treated as one
+     * character.
+     * @param strings1 The first string list argument for the similarity calculation.
+     * @param strings2 The second string list argument for the similarity calculation.
+     * @return The Jaro-Winkler similarity of the two arguments.
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        int m = strings1.length;
+        int n = strings2.length;
+        if (m == 0 || n == 0)
+            return (m == n) ? 1.0 : 0.0;
+
+        Buffers buffers = BUFFERS.get();
+        buffers.ensureCapacity(m, n);
+        boolean[] flags1 = buffers.flags1;
+        boolean[] flags2 = buffers.flags2;
+        Arrays.fill(flags1, 0, m, false);
+        Arrays.fill(flags2, 0, n, false);
+
+        int window = Math.max(0, Math.max(m, n) / 2 - 1);
+        int matches = 0;
+        for (int i = 0; i < m; i++) {
+            int to = Math.min(n, i + window + 1);
+            for (int j = Math.max(0, i - window); j < to; j++) {
+                if (!flags2[j] && strings1[i].equals(strings2[j])) {
+                    flags1[i] = true;
+                    flags2[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0)
+            return 0.0;
+
+        int halfTranspositions = 0;
+        for (int i = 0, j = 0; i < m; i++) {
+            if (!flags1[i])
+                continue;
+            while (!flags2[j])
+                j++;
+            if (!strings1[i].equals(strings2[j]))
+                halfTranspositions++;
+            j++;
+        }
+
+        double jaro = this.jaro(matches, halfTranspositions, m, n);
+        if (jaro <= this.boostThreshold)
+            return jaro;
+        int prefix = 0;
+        while (prefix < Math.min(MAX_PREFIX_LENGTH, Math.min(m, n)) && strings1[prefix].equals(strings2[prefix]))
+            prefix++;
+        return jaro + prefix * this.prefixScale * (1.0 - jaro);
+    }
+
+    /**
+     * Calculates the Jaro-Winkler similarity of the two input strings if it can reach the given minimum similarity: At
+     * most as many characters as the shorter string has can match, which bounds the similarity by the lengths alone,
+     * so pairs of very different lengths are rejected without running the kernel.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param minSimilarity The similarity that the caller is interested in.
+     * @return The exact similarity if it can reach minSimilarity; otherwise an upper bound of the similarity.
+     */
+    @Override
+    public double calculate(final String string1, final String string2, final double minSimilarity) {
+        int m = string1.length();
+        int n = string2.length();
+        if (m > 0 && n > 0) {
+            int maxMatches = Math.min(m, n);
+            double maxJaro = this.jaro(maxMatches, 0, m, n);
+            double upperBound = (maxJaro > this.boostThreshold) ? maxJaro + MAX_PREFIX_LENGTH * this.prefixScale * (1.0 - maxJaro) : maxJaro;
+            if (upperBound < minSimilarity)
+                return upperBound;
+        }
+        return this.calculate(string1, string2);
+    }
+
+    private double jaro(int matches, int halfTranspositions, int m, int n) {
+        return ((double) matches / m + (double) matches / n + (matches - halfTranspositions / 2.0) / matches) / 3.0;
+    }
+}
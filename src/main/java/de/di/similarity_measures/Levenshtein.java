@@ -1,8 +1,16 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.helper.PatternMask;
+import de.di.similarity_measures.helper.PreparedValue;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 
 @AllArgsConstructor
 public class Levenshtein implements SimilarityMeasure {
@@ -10,6 +18,11 @@ public class Levenshtein implements SimilarityMeasure {
     public Levenshtein() {
 
         withDamerau = false;
+        engine = Engine.BIT_PARALLEL;
+    }
+
+    public Levenshtein(final boolean withDamerau) {
+        this(withDamerau, Engine.BIT_PARALLEL);
     }
 
     public static int min(int... numbers) {
@@ -17,8 +30,67 @@ public class Levenshtein implements SimilarityMeasure {
     }
 
     // The choice of whether Levenshtein or DamerauLevenshtein should be calculated.
+    @Getter
     private final boolean withDamerau;
 
+    /**
+     * The algorithms that calculate the character-level distance; all engines calculate identical distances.
+     * DYNAMIC_PROGRAMMING fills the DP matrix cell by cell. BIT_PARALLEL (Myers/Hyyrö) computes 64 cells of a DP
+     * column with a few word operations; strings longer than 64 characters are processed in blocks of 64.
+     */
+    public enum Engine {
+        DYNAMIC_PROGRAMMING, BIT_PARALLEL
+    }
+
+    // The algorithm that calculates the distances of strings.
+    private final Engine engine;
+
+    // The pattern mask of the last first prepared value of every thread; it belongs to this measure, so that the
+    // measures of different attributes of a record comparison do not replace each other's masks.
+    private final ThreadLocal<PatternMask> preparedMasks = new ThreadLocal<>();
+
+    /**
+     * The DP rows and character buffers of one thread; they grow with the longest strings seen and are reused by all
+     * calculations of the thread, so that the character-level DP does not allocate.
+     */
+    private static class Buffers {
+        private char[] chars1 = new char[64];
+        private char[] chars2 = new char[64];
+        private int[] upperupperLine = new int[65];
+        private int[] upperLine = new int[65];
+        private int[] lowerLine = new int[65];
+        private PatternMask mask;
+        private PatternMask queryMask;
+        private long[] vp = new long[2];
+        private long[] vn = new long[2];
+        private long[] d0 = new long[2];
+        private long[] pmOld = new long[2];
+
+        private void ensureCapacity(int m, int n) {
+            if (this.chars1.length < m)
+                this.chars1 = new char[Math.max(m, 2 * this.chars1.length)];
+            if (this.chars2.length < n)
+                this.chars2 = new char[Math.max(n, 2 * this.chars2.length)];
+            if (this.upperLine.length < m + 1) {
+                int length = Math.max(m + 1, 2 * this.upperLine.length);
+                this.upperupperLine = new int[length];
+                this.upperLine = new int[length];
+                this.lowerLine = new int[length];
+            }
+        }
+
+        private void ensureWords(int words) {
+            if (this.vp.length < words) {
+                this.vp = new long[2 * words];
+                this.vn = new long[2 * words];
+                this.d0 = new long[2 * words];
+                this.pmOld = new long[2 * words];
+            }
+        }
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
     /**
      * Calculates the Levenshtein similarity of the two input strings.
      * The Levenshtein similarity is defined as "1 - normalized Levenshtein distance".
@@ -28,15 +100,534 @@ public class Levenshtein implements SimilarityMeasure {
      */
     @Override
     public double calculate(final String string1, final String string2) {
-        double levenshteinSimilarity = 0.0;
+        double levenshteinDistance = this.distance(string1, string2);
+        return 1.0 - (levenshteinDistance / Math.max(string1.length(), string2.length()));
+    }
 
-        // Converting strings to arrays of single-character strings
-        String[] strings1 = string1.chars().mapToObj(c -> String.valueOf((char) c)).toArray(String[]::new);
-        String[] strings2 = string2.chars().mapToObj(c -> String.valueOf((char) c)).toArray(String[]::new);
+    /**
+     * Calculates the (Damerau) Levenshtein distance of the two input strings, i.e., the number of character insertions,
+     * deletions, replacements (and swaps of adjacent characters) that transform one string into the other. Swaps
+     * follow the optimal string alignment semantics, i.e., no substring is edited more than once. The distance is
+     * calculated by the engine of this measure on reused per-thread buffers.
+     * @param string1 The first string argument for the distance calculation.
+     * @param string2 The second string argument for the distance calculation.
+     * @return The (Damerau) Levenshtein distance of the two arguments.
+     */
+    public int distance(final String string1, final String string2) {
+        if (this.engine == Engine.DYNAMIC_PROGRAMMING)
+            return this.dynamicProgrammingDistance(string1, string2);
 
-        // Call the string[] calculate method and reuse the logic
-        levenshteinSimilarity = calculate(strings1, strings2);
-        return levenshteinSimilarity;
+        // The shorter string is the pattern, so that it fits into as few words as possible
+        String pattern = (string1.length() <= string2.length()) ? string1 : string2;
+        String text = (pattern == string1) ? string2 : string1;
+        Buffers buffers = BUFFERS.get();
+        buffers.mask = (buffers.mask == null) ? new PatternMask(pattern) : buffers.mask.reset(pattern);
+        return this.bitParallelDistance(buffers.mask, text, buffers);
+    }
+
+    /**
+     * Calculates the Levenshtein similarity of the two input strings if it is at least minSimilarity. The similarity
+     * bound is translated into a maximum distance k, so that strings whose lengths differ by more than k are rejected
+     * without any DP, and the DP is restricted to the diagonal band of width 2k + 1 (Ukkonen); it stops as soon as all
+     * cells of a row exceed k.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param minSimilarity The minimum similarity that the caller is interested in.
+     * @return The exact (Damerau) Levenshtein similarity if it is at least minSimilarity; otherwise an upper bound of
+     * the similarity that is smaller than minSimilarity.
+     */
+    @Override
+    public double calculate(final String string1, final String string2, final double minSimilarity) {
+        int m = string1.length();
+        int n = string2.length();
+        int maxLength = Math.max(m, n);
+        if (maxLength == 0 || !(minSimilarity > 0))
+            return this.calculate(string1, string2);
+
+        int maxDistance = maxDistanceOf(maxLength, minSimilarity);
+        if (maxDistance == maxLength)
+            return this.calculate(string1, string2);
+        return boundedSimilarity(this.distance(string1, string2, maxDistance), maxDistance, maxLength);
+    }
+
+    /**
+     * Returns the largest distance whose similarity still reaches minSimilarity, evaluated with the exact formula.
+     */
+    private static int maxDistanceOf(int maxLength, double minSimilarity) {
+        int maxDistance = (int) Math.max(-1, Math.min(maxLength, Math.floor((1 - minSimilarity) * maxLength)));
+        while (maxDistance < maxLength && 1.0 - ((double) (maxDistance + 1) / maxLength) >= minSimilarity)
+            maxDistance++;
+        while (maxDistance >= 0 && 1.0 - ((double) maxDistance / maxLength) < minSimilarity)
+            maxDistance--;
+        return maxDistance;
+    }
+
+    /**
+     * Returns the similarity of a distance that was calculated with the given maxDistance; larger distances are
+     * reported as the similarity of maxDistance + 1, which is an upper bound below the minimum similarity.
+     */
+    private static double boundedSimilarity(int distance, int maxDistance, int maxLength) {
+        return 1.0 - ((double) Math.min(distance, maxDistance + 1) / maxLength);
+    }
+
+    /**
+     * Calculates the (Damerau) Levenshtein distance of the two input strings if it is at most maxDistance. Strings
+     * whose lengths differ by more than maxDistance are rejected without any DP; otherwise, the DP is restricted to the
+     * diagonal band of width 2 * maxDistance + 1 and stops as soon as all cells of a row exceed maxDistance. With the
+     * bit-parallel engine, strings of which one fits into a single word are compared in one word instead, which stops
+     * as soon as the remaining characters can no longer bring the distance down to maxDistance.
+     * @param string1 The first string argument for the distance calculation.
+     * @param string2 The second string argument for the distance calculation.
+     * @param maxDistance The largest distance that the caller is interested in.
+     * @return The exact distance if it is at most maxDistance; otherwise maxDistance + 1.
+     */
+    public int distance(final String string1, final String string2, final int maxDistance) {
+        int m = string1.length();
+        int n = string2.length();
+        if (maxDistance < 0 || Math.abs(m - n) > maxDistance)
+            return maxDistance + 1;
+
+        if (this.engine == Engine.BIT_PARALLEL && Math.min(m, n) <= 64) {
+            // A single-word bit-parallel pass is cheaper than any band
+            if (m == 0 || n == 0)
+                return Math.max(m, n);
+            String pattern = (m <= n) ? string1 : string2;
+            String text = (pattern == string1) ? string2 : string1;
+            Buffers buffers = BUFFERS.get();
+            buffers.mask = (buffers.mask == null) ? new PatternMask(pattern) : buffers.mask.reset(pattern);
+            return Math.min(this.wordDistance(buffers.mask, text, maxDistance), maxDistance + 1);
+        }
+        return this.boundedDistance(string1, string2, maxDistance);
+    }
+
+    /**
+     * Calculates the (Damerau) Levenshtein distance of the two input strings if it is at most maxDistance, filling only
+     * the cells of the DP that lie within maxDistance of the diagonal.
+     * @return The distance or maxDistance + 1 if the distance is larger than maxDistance.
+     */
+    private int boundedDistance(final String string1, final String string2, final int maxDistance) {
+        int m = string1.length();
+        int n = string2.length();
+        int outside = maxDistance + 1;
+
+        Buffers buffers = BUFFERS.get();
+        buffers.ensureCapacity(m, n);
+        char[] chars1 = buffers.chars1;
+        char[] chars2 = buffers.chars2;
+        string1.getChars(0, m, chars1, 0);
+        string2.getChars(0, n, chars2, 0);
+
+        int[] upperupperLine = buffers.upperupperLine;
+        int[] upperLine = buffers.upperLine;
+        int[] lowerLine = buffers.lowerLine;
+
+        // Cells outside the band are represented by maxDistance + 1, which is a lower bound of their true values
+        for (int i = 0; i <= Math.min(m, maxDistance); i++)
+            upperLine[i] = i;
+        if (maxDistance + 1 <= m)
+            upperLine[maxDistance + 1] = outside;
+
+        int upperMin = 0;
+        for (int j = 1; j <= n; j++) {
+            char c2 = chars2[j - 1];
+            int from = Math.max(1, j - maxDistance);
+            int to = Math.min(m, j + maxDistance);
+            lowerLine[from - 1] = (from == 1) ? j : outside;
+
+            int lowerMin = lowerLine[from - 1];
+            for (int i = from; i <= to; i++) {
+                int cost = (chars1[i - 1] == c2) ? 0 : 1;
+                int distance = Math.min(Math.min(lowerLine[i - 1] + 1, upperLine[i] + 1), upperLine[i - 1] + cost);
+                if (this.withDamerau && i > 1 && j > 1 && chars1[i - 1] == chars2[j - 2] && chars1[i - 2] == c2)
+                    distance = Math.min(distance, upperupperLine[i - 2] + cost);
+                lowerLine[i] = distance;
+                lowerMin = Math.min(lowerMin, distance);
+            }
+            if (to < m)
+                lowerLine[to + 1] = outside;
+
+            // Every alignment passes this row (or, with swaps, one of the last two rows) with at least its minimum cost
+            if (lowerMin > maxDistance && (!this.withDamerau || upperMin > maxDistance))
+                return outside;
+            upperMin = lowerMin;
+
+            int[] line = upperupperLine;
+            upperupperLine = upperLine;
+            upperLine = lowerLine;
+            lowerLine = line;
+        }
+
+        return Math.min(upperLine[m], outside);
+    }
+
+    /**
+     * Calculates the Levenshtein similarity of a prepared pattern and the input string, which is equal to
+     * calculate(pattern.getPattern(), string). Preparing the pattern once pays off if it is compared to many strings.
+     * @param pattern The pattern mask of the first string argument for the similarity calculation.
+     * @param string The second string argument for the similarity calculation.
+     * @return The (Damerau) Levenshtein similarity of the two arguments.
+     */
+    public double calculate(final PatternMask pattern, final String string) {
+        double levenshteinDistance = this.distance(pattern, string);
+        return 1.0 - (levenshteinDistance / Math.max(pattern.length(), string.length()));
+    }
+
+    /**
+     * Calculates the (Damerau) Levenshtein distance of a prepared pattern and the input string with the bit-parallel
+     * engine; see distance(String, String).
+     * @param pattern The pattern mask of the first string argument for the distance calculation.
+     * @param string The second string argument for the distance calculation.
+     * @return The (Damerau) Levenshtein distance of the two arguments.
+     */
+    public int distance(final PatternMask pattern, final String string) {
+        return this.bitParallelDistance(pattern, string, BUFFERS.get());
+    }
+
+    /**
+     * Calculates the Levenshtein similarities of the query to all candidates. With the bit-parallel engine, the pattern
+     * mask of the query is built only once and reused for all candidates.
+     * @param query The string that is compared to all candidates.
+     * @param candidates The strings that the query is compared to.
+     * @return The (Damerau) Levenshtein similarities of the query to the candidates.
+     */
+    @Override
+    public double[] calculateOneToMany(final String query, final String[] candidates) {
+        if (this.engine != Engine.BIT_PARALLEL)
+            return SimilarityMeasure.super.calculateOneToMany(query, candidates);
+
+        PatternMask queryMask = this.queryMaskOf(query);
+        double[] similarities = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++)
+            similarities[i] = this.calculatePrepared(queryMask, candidates[i]);
+        return similarities;
+    }
+
+    /**
+     * Calculates the Levenshtein similarities of the given pairs of values. With the bit-parallel engine, the pairs are
+     * grouped by their first value, so that the pattern mask of every first value is built only once per group.
+     * @param values The values that the pairs refer to.
+     * @param pairs The pairs as arrays {index1, index2} of indexes into values.
+     * @param parallel The choice of whether the groups should be calculated in parallel.
+     * @return The similarities of the pairs in the order of the pairs.
+     */
+    @Override
+    public double[] calculatePairs(final String[] values, final List<int[]> pairs, final boolean parallel) {
+        if (this.engine != Engine.BIT_PARALLEL)
+            return SimilarityMeasure.super.calculatePairs(values, pairs, parallel);
+
+        Int2ObjectOpenHashMap<IntArrayList> groups = new Int2ObjectOpenHashMap<>();
+        for (int k = 0; k < pairs.size(); k++)
+            groups.computeIfAbsent(pairs.get(k)[0], index -> new IntArrayList()).add(k);
+
+        double[] similarities = new double[pairs.size()];
+        Stream<Int2ObjectMap.Entry<IntArrayList>> entries = groups.int2ObjectEntrySet().stream();
+        (parallel ? entries.parallel() : entries).forEach(group -> {
+            PatternMask queryMask = this.queryMaskOf(values[group.getIntKey()]);
+            for (int k : group.getValue())
+                similarities[k] = this.calculatePrepared(queryMask, values[pairs.get(k)[1]]);
+        });
+        return similarities;
+    }
+
+    /**
+     * Calculates the Levenshtein similarity of the two prepared values. Levenshtein does not store pattern masks in its
+     * prepared values, because a mask takes at least 2 KB; instead, the bit-parallel engine keeps the mask of the last
+     * first value per thread and measure, so that consecutive comparisons of the same first value, e.g., in the window
+     * of a sorted neighborhood run or in the group of a record, build the mask only once.
+     * @param value1 The first prepared value for the similarity calculation.
+     * @param value2 The second prepared value for the similarity calculation.
+     * @return The (Damerau) Levenshtein similarity of the two arguments.
+     */
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2) {
+        if (this.engine != Engine.BIT_PARALLEL)
+            return this.calculate(value1.getValue(), value2.getValue());
+        return this.calculatePrepared(this.preparedMaskOf(value1.getValue()), value2.getValue());
+    }
+
+    /**
+     * Calculates the Levenshtein similarity of the two prepared values if it can reach the given minimum similarity;
+     * see calculate(String, String, double). Pairs that pass the length filter and whose first value fits into one
+     * word are compared with the reused mask of the first value, which is cheaper than any band.
+     * @param value1 The first prepared value for the similarity calculation.
+     * @param value2 The second prepared value for the similarity calculation.
+     * @param minSimilarity The minimum similarity that the caller is interested in.
+     * @return The exact (Damerau) Levenshtein similarity if it is at least minSimilarity; otherwise an upper bound of
+     * the similarity that is smaller than minSimilarity.
+     */
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2, final double minSimilarity) {
+        String string1 = value1.getValue();
+        String string2 = value2.getValue();
+        int m = string1.length();
+        int n = string2.length();
+        if (this.engine != Engine.BIT_PARALLEL || m == 0 || m > 64 || n == 0 || !(minSimilarity > 0))
+            return this.calculate(string1, string2, minSimilarity);
+        int maxLength = Math.max(m, n);
+        int maxDistance = maxDistanceOf(maxLength, minSimilarity);
+        if (maxDistance < 0 || Math.abs(m - n) > maxDistance)
+            return boundedSimilarity(maxDistance + 1, maxDistance, maxLength);
+        return boundedSimilarity(this.wordDistance(this.preparedMaskOf(string1), string2, maxDistance), maxDistance, maxLength);
+    }
+
+    private double calculatePrepared(PatternMask queryMask, String candidate) {
+        // A query of several words is only worth its mask if the candidate is not shorter
+        if (queryMask.getWords() > 1 && candidate.length() < queryMask.length())
+            return this.calculate(queryMask.getPattern(), candidate);
+        return this.calculate(queryMask, candidate);
+    }
+
+    /**
+     * Prepares the pattern mask of a query in the buffers of the current thread; the mask stays valid until the next
+     * call of this method on the same thread.
+     */
+    private PatternMask queryMaskOf(String query) {
+        Buffers buffers = BUFFERS.get();
+        buffers.queryMask = (buffers.queryMask == null) ? new PatternMask(query) : buffers.queryMask.reset(query);
+        return buffers.queryMask;
+    }
+
+    /**
+     * Returns the pattern mask of a prepared first value for the current thread. The mask is rebuilt only if the value
+     * is not the same string instance as the previous first value of this measure on this thread.
+     */
+    private PatternMask preparedMaskOf(String value) {
+        PatternMask mask = this.preparedMasks.get();
+        if (mask != null && mask.getPattern() == value)
+            return mask;
+        mask = this.buildPreparedMask(mask, value);
+        this.preparedMasks.set(mask);
+        return mask;
+    }
+
+    /**
+     * Builds the pattern mask of a prepared first value, reusing the given mask of the thread if there is one.
+     */
+    PatternMask buildPreparedMask(PatternMask mask, String value) {
+        return (mask == null) ? new PatternMask(value) : mask.reset(value);
+    }
+
+    private int bitParallelDistance(PatternMask mask, String text, Buffers buffers) {
+        int m = mask.length();
+        int n = text.length();
+        if (m == 0 || n == 0)
+            return Math.max(m, n);
+        if (mask.getWords() == 1)
+            return this.wordDistance(mask, text, Integer.MAX_VALUE);
+        buffers.ensureWords(mask.getWords());
+        return this.withDamerau ? osaBlocks(mask, text, buffers) : levenshteinBlocks(mask, text, buffers);
+    }
+
+    /**
+     * Calculates the distance of a non-empty single-word pattern and a non-empty text; distances larger than
+     * maxDistance may be reported as any value larger than maxDistance.
+     */
+    private int wordDistance(PatternMask mask, String text, int maxDistance) {
+        return this.withDamerau ? osaWord(mask, text, maxDistance) : levenshteinWord(mask, text, maxDistance);
+    }
+
+    /**
+     * Hyyrö's bit-vector formulation of Myers' algorithm for patterns of at most 64 characters: vp and vn hold the
+     * positive and negative vertical deltas of the current DP column, whose last cell is tracked in distance. The last
+     * cell decreases by at most one per column, so the calculation stops with a distance larger than maxDistance as
+     * soon as the remaining columns cannot bring it down to maxDistance.
+     */
+    private static int levenshteinWord(PatternMask mask, String text, int maxDistance) {
+        long vp = ~0L;
+        long vn = 0L;
+        long last = 1L << (mask.length() - 1);
+        int distance = mask.length();
+
+        for (int j = 0; j < text.length(); j++) {
+            long pm = mask.get(0, text.charAt(j));
+            long d0 = (((pm & vp) + vp) ^ vp) | pm | vn;
+            long hp = vn | ~(d0 | vp);
+            long hn = d0 & vp;
+            if ((hp & last) != 0)
+                distance++;
+            if ((hn & last) != 0)
+                distance--;
+            if (distance - (text.length() - 1 - j) > maxDistance)
+                return distance - (text.length() - 1 - j);
+            hp = (hp << 1) | 1;
+            hn = hn << 1;
+            vp = hn | ~(d0 | hp);
+            vn = hp & d0;
+        }
+        return distance;
+    }
+
+    /**
+     * The optimal string alignment variant of levenshteinWord(), which additionally marks the diagonal zero deltas that
+     * come from a transposition of the current and the previous character of the text.
+     */
+    private static int osaWord(PatternMask mask, String text, int maxDistance) {
+        long vp = ~0L;
+        long vn = 0L;
+        long d0 = 0L;
+        long pmOld = 0L;
+        long last = 1L << (mask.length() - 1);
+        int distance = mask.length();
+
+        for (int j = 0; j < text.length(); j++) {
+            long pm = mask.get(0, text.charAt(j));
+            long tr = (((~d0) & pm) << 1) & pmOld;
+            d0 = (((pm & vp) + vp) ^ vp) | pm | vn | tr;
+            long hp = vn | ~(d0 | vp);
+            long hn = d0 & vp;
+            if ((hp & last) != 0)
+                distance++;
+            if ((hn & last) != 0)
+                distance--;
+            if (distance - (text.length() - 1 - j) > maxDistance)
+                return distance - (text.length() - 1 - j);
+            hp = (hp << 1) | 1;
+            hn = hn << 1;
+            vp = hn | ~(d0 | hp);
+            vn = hp & d0;
+            pmOld = pm;
+        }
+        return distance;
+    }
+
+    /**
+     * The blocked form of levenshteinWord() for longer patterns; the horizontal deltas of the top cell of every word
+     * are carried from word to word.
+     */
+    private static int levenshteinBlocks(PatternMask mask, String text, Buffers buffers) {
+        int words = mask.getWords();
+        long[] vp = buffers.vp;
+        long[] vn = buffers.vn;
+        Arrays.fill(vp, 0, words, ~0L);
+        Arrays.fill(vn, 0, words, 0L);
+        long last = 1L << ((mask.length() - 1) & 63);
+        int distance = mask.length();
+
+        for (int j = 0; j < text.length(); j++) {
+            char c = text.charAt(j);
+            long hpCarry = 1L;
+            long hnCarry = 0L;
+            for (int w = 0; w < words; w++) {
+                long pm = mask.get(w, c);
+                long x = pm | hnCarry;
+                long d0 = (((x & vp[w]) + vp[w]) ^ vp[w]) | x | vn[w];
+                long hp = vn[w] | ~(d0 | vp[w]);
+                long hn = d0 & vp[w];
+                if (w == words - 1) {
+                    if ((hp & last) != 0)
+                        distance++;
+                    if ((hn & last) != 0)
+                        distance--;
+                }
+                long hpOut = hp >>> 63;
+                long hnOut = hn >>> 63;
+                hp = (hp << 1) | hpCarry;
+                hn = (hn << 1) | hnCarry;
+                hpCarry = hpOut;
+                hnCarry = hnOut;
+                vp[w] = hn | ~(d0 | hp);
+                vn[w] = hp & d0;
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * The blocked form of osaWord(); transpositions additionally carry the top bit of the previous word.
+     */
+    private static int osaBlocks(PatternMask mask, String text, Buffers buffers) {
+        int words = mask.getWords();
+        long[] vp = buffers.vp;
+        long[] vn = buffers.vn;
+        long[] d0s = buffers.d0;
+        long[] pmOld = buffers.pmOld;
+        Arrays.fill(vp, 0, words, ~0L);
+        Arrays.fill(vn, 0, words, 0L);
+        Arrays.fill(d0s, 0, words, 0L);
+        Arrays.fill(pmOld, 0, words, 0L);
+        long last = 1L << ((mask.length() - 1) & 63);
+        int distance = mask.length();
+
+        for (int j = 0; j < text.length(); j++) {
+            char c = text.charAt(j);
+            long hpCarry = 1L;
+            long hnCarry = 0L;
+            long previousD0 = 0L;
+            long previousPm = 0L;
+            for (int w = 0; w < words; w++) {
+                long pm = mask.get(w, c);
+                long tr = ((((~d0s[w]) & pm) << 1) | (((~previousD0) & previousPm) >>> 63)) & pmOld[w];
+                previousD0 = d0s[w];
+                previousPm = pm;
+
+                long x = pm | hnCarry;
+                long d0 = (((x & vp[w]) + vp[w]) ^ vp[w]) | x | vn[w] | tr;
+                long hp = vn[w] | ~(d0 | vp[w]);
+                long hn = d0 & vp[w];
+                if (w == words - 1) {
+                    if ((hp & last) != 0)
+                        distance++;
+                    if ((hn & last) != 0)
+                        distance--;
+                }
+                long hpOut = hp >>> 63;
+                long hnOut = hn >>> 63;
+                hp = (hp << 1) | hpCarry;
+                hn = (hn << 1) | hnCarry;
+                hpCarry = hpOut;
+                hnCarry = hnOut;
+                vp[w] = hn | ~(d0 | hp);
+                vn[w] = hp & d0;
+                d0s[w] = d0;
+                pmOld[w] = pm;
+            }
+        }
+        return distance;
+    }
+
+    private int dynamicProgrammingDistance(final String string1, final String string2) {
+        int m = string1.length();
+        int n = string2.length();
+
+        Buffers buffers = BUFFERS.get();
+        buffers.ensureCapacity(m, n);
+        char[] chars1 = buffers.chars1;
+        char[] chars2 = buffers.chars2;
+        string1.getChars(0, m, chars1, 0);
+        string2.getChars(0, n, chars2, 0);
+
+        int[] upperupperLine = buffers.upperupperLine;   // line for Damerau lookups
+        int[] upperLine = buffers.upperLine;             // line for regular Levenshtein lookups
+        int[] lowerLine = buffers.lowerLine;             // line to be filled next by the algorithm
+
+        for (int i = 0; i <= m; i++) {
+            upperLine[i] = i;
+        }
+
+        for (int j = 1; j <= n; j++) {
+            char c2 = chars2[j - 1];
+            lowerLine[0] = j;
+            for (int i = 1; i <= m; i++) {
+                int cost = (chars1[i - 1] == c2) ? 0 : 1;
+                int distance = Math.min(Math.min(lowerLine[i - 1] + 1, // insertion
+                        upperLine[i] + 1),     // deletion
+                        upperLine[i - 1] + cost); // substitution
+                if (this.withDamerau && i > 1 && j > 1 &&
+                        chars1[i - 1] == chars2[j - 2] &&
+                        chars1[i - 2] == c2) {
+                    distance = Math.min(distance, upperupperLine[i - 2] + cost);
+                }
+                lowerLine[i] = distance;
+            }
+
+            // Rotate the lines instead of copying them
+            int[] line = upperupperLine;
+            upperupperLine = upperLine;
+            upperLine = lowerLine;
+            lowerLine = line;
+        }
+
+        return upperLine[m];
     }
 
     /**
@@ -67,13 +658,13 @@ public class Levenshtein implements SimilarityMeasure {
             lowerLine[0] = j;
             for (int i = 1; i <= m; i++) {
                 int cost = (strings1[i - 1].equals(strings2[j - 1])) ? 0 : 1;
-                lowerLine[i] = min(lowerLine[i - 1] + 1, // insertion
-                        upperLine[i] + 1,     // deletion
+                lowerLine[i] = Math.min(Math.min(lowerLine[i - 1] + 1, // insertion
+                        upperLine[i] + 1),     // deletion
                         upperLine[i - 1] + cost); // substitution
                 if (withDamerau && i > 1 && j > 1 &&
                         strings1[i - 1].equals(strings2[j - 2]) &&
                         strings1[i - 2].equals(strings2[j - 1])) {
-                    lowerLine[i] = min(lowerLine[i], upperupperLine[i - 2] + cost);
+                    lowerLine[i] = Math.min(lowerLine[i], upperupperLine[i - 2] + cost);
                 }
             }
             System.arraycopy(upperLine, 0, upperupperLine, 0, m + 1);
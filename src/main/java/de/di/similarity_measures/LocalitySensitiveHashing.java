@@ -1,10 +1,15 @@
 package de.di.similarity_measures;
 
 import de.di.similarity_measures.helper.MinHash;
+import de.di.similarity_measures.helper.PreparedValue;
+import de.di.similarity_measures.helper.TokenDictionary;
+import de.di.similarity_measures.helper.TokenStore;
 import de.di.similarity_measures.helper.Tokenizer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 public class LocalitySensitiveHashing implements SimilarityMeasure {
 
@@ -17,6 +22,9 @@ public class LocalitySensitiveHashing implements SimilarityMeasure {
     // The MinHash functions that are used to calculate the LSH signatures.
     private final List<MinHash> minHashFunctions;
 
+    // The Jaccard measure that compares the signatures.
+    private final Jaccard jaccard;
+
     public LocalitySensitiveHashing(final Tokenizer tokenizer, final boolean bagSemantics, final int numHashFunctions) {
         assert(tokenizer.getTokenSize() >= numHashFunctions);
 
@@ -25,6 +33,7 @@ public class LocalitySensitiveHashing implements SimilarityMeasure {
         this.minHashFunctions = new ArrayList<>(numHashFunctions);
         for (int i = 0; i < numHashFunctions; i++)
             this.minHashFunctions.add(new MinHash(i));
+        this.jaccard = new Jaccard(tokenizer, bagSemantics);
     }
 
     /**
@@ -32,15 +41,14 @@ public class LocalitySensitiveHashing implements SimilarityMeasure {
      * The LHS algorithm calculates the LHS signatures by first tokenizing the input strings and then applying its
      * internal MinHash functions to the tokenized strings. Then, it uses the two signatures to approximate the Jaccard
      * similarity of the two strings with their signatures by simply applying the Jaccard algorithm on the two signatures.
+     * The tokens are taken from the shared TokenStore, so that recurring strings are not tokenized again.
      * @param string1 The first string argument for the similarity calculation.
      * @param string2 The second string argument for the similarity calculation.
      * @return The LSH similarity (= Jaccard approximation) of the two arguments.
      */
     @Override
     public double calculate(final String string1, final String string2) {
-        String[] tokens1 = this.tokenizer.tokenize(string1);
-        String[] tokens2 = this.tokenizer.tokenize(string2);
-        return this.calculate(tokens1, tokens2);
+        return this.jaccard.calculate(this.signatureIdsOf(string1), this.signatureIdsOf(string2));
     }
 
     /**
@@ -63,6 +71,120 @@ public class LocalitySensitiveHashing implements SimilarityMeasure {
         return lshJaccard;
     }
 
+    /**
+     * Calculates the LSH similarities of the query to all candidates; the signature of the query is calculated once and
+     * compared as sorted int ids to the signatures of the candidates.
+     * @param query The string that is compared to all candidates.
+     * @param candidates The strings that the query is compared to.
+     * @return The LSH similarities of the query to the candidates.
+     */
+    @Override
+    public double[] calculateOneToMany(final String query, final String[] candidates) {
+        int[] querySignature = this.signatureIdsOf(query);
+        double[] similarities = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++)
+            similarities[i] = this.jaccard.calculate(querySignature, this.signatureIdsOf(candidates[i]));
+        return similarities;
+    }
+
+    /**
+     * Calculates the LSH similarity matrix of the two string arrays; the signature of every string is calculated once.
+     * @param strings1 The strings of the rows.
+     * @param strings2 The strings of the columns.
+     * @param parallel The choice of whether the rows should be calculated in parallel.
+     * @return The similarity matrix, where matrix[i][j] = calculate(strings1[i], strings2[j]).
+     */
+    @Override
+    public double[][] calculateMatrix(final String[] strings1, final String[] strings2, final boolean parallel) {
+        // All signatures are calculated before the rows, so that the parallel rows only compare int arrays
+        int[][] signatures1 = new int[strings1.length][];
+        for (int i = 0; i < strings1.length; i++)
+            signatures1[i] = this.signatureIdsOf(strings1[i]);
+        int[][] signatures2 = new int[strings2.length][];
+        for (int j = 0; j < strings2.length; j++)
+            signatures2[j] = this.signatureIdsOf(strings2[j]);
+
+        double[][] matrix = new double[strings1.length][strings2.length];
+        IntStream rows = IntStream.range(0, strings1.length);
+        (parallel ? rows.parallel() : rows).forEach(i -> {
+            for (int j = 0; j < strings2.length; j++)
+                matrix[i][j] = this.jaccard.calculate(signatures1[i], signatures2[j]);
+        });
+        return matrix;
+    }
+
+    /**
+     * Calculates the LSH similarities of the given pairs of values; the signature of every value is calculated once.
+     * @param values The values that the pairs refer to.
+     * @param pairs The pairs as arrays {index1, index2} of indexes into values.
+     * @param parallel The choice of whether the pairs should be calculated in parallel.
+     * @return The similarities of the pairs in the order of the pairs.
+     */
+    @Override
+    public double[] calculatePairs(final String[] values, final List<int[]> pairs, final boolean parallel) {
+        int[][] signatures = new int[values.length][];
+        for (int[] pair : pairs) {
+            if (signatures[pair[0]] == null)
+                signatures[pair[0]] = this.signatureIdsOf(values[pair[0]]);
+            if (signatures[pair[1]] == null)
+                signatures[pair[1]] = this.signatureIdsOf(values[pair[1]]);
+        }
+
+        double[] similarities = new double[pairs.size()];
+        IntStream indexes = IntStream.range(0, pairs.size());
+        (parallel ? indexes.parallel() : indexes).forEach(k -> similarities[k] = this.jaccard.calculate(signatures[pairs.get(k)[0]], signatures[pairs.get(k)[1]]));
+        return similarities;
+    }
+
+    /**
+     * Prepares the input string by calculating its MinHash signature once; the signature is stored as the sorted ids of
+     * its entries.
+     * @param string The string that should be prepared.
+     * @return The prepared string with the sorted ids of its MinHash signature.
+     */
+    @Override
+    public PreparedValue prepare(final String string) {
+        return new PreparedValue(string, this.signatureIdsOf(string));
+    }
+
+    /**
+     * Calculates the LSH similarity of the two prepared values on their MinHash signatures.
+     * @param value1 The first prepared value for the similarity calculation.
+     * @param value2 The second prepared value for the similarity calculation.
+     * @return The LSH similarity (= Jaccard approximation) of the two arguments.
+     */
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2) {
+        return this.jaccard.calculate(value1.getTokenIds(), value2.getTokenIds());
+    }
+
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2, final double minSimilarity) {
+        return this.calculate(value1, value2);
+    }
+
+    /**
+     * Calculates the MinHash signature of the given string as the sorted ids of the chosen tokens in the shared
+     * TokenStore; the empty signature entry of a string without tokens gets the id -1. Two entries are equal if and
+     * only if their ids are equal, so the signatures are compared like their token strings.
+     */
+    private int[] signatureIdsOf(final String string) {
+        TokenStore store = this.tokenizer.getTokenStore();
+        int[] ids = store.tokenIds(string);
+        TokenDictionary dictionary = store.getDictionary();
+        String[] tokens = new String[ids.length];
+        for (int i = 0; i < ids.length; i++)
+            tokens[i] = dictionary.tokenOf(ids[i]);
+
+        int[] signature = new int[this.minHashFunctions.size()];
+        for (int i = 0; i < signature.length; i++) {
+            int index = this.minHashFunctions.get(i).indexOf(tokens);
+            signature[i] = (index < 0) ? -1 : ids[index];
+        }
+        Arrays.sort(signature);
+        return signature;
+    }
+
     private String[] calculateMinHashSignatures(final String[] strings) {
         String[] signatures = new String[this.minHashFunctions.size()];
 
@@ -0,0 +1,240 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.MinHashFamily;
+import de.di.similarity_measures.helper.Tokenizer;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A LocalitySensitiveHashingIndex finds similar values without comparing all pairs of values. Every inserted value is
+ * tokenized and summarized by a MinHash signature of bands * rows entries; the signature is split into bands of rows
+ * consecutive entries and the value is put into one bucket per band, keyed by the entries of that band. Two values
+ * become candidates if they share at least one bucket, which happens with probability 1 - (1 - s^rows)^bands for two
+ * values with Jaccard similarity s. This S-curve rises steeply around (1 / bands)^(1 / rows), so bands and rows tune
+ * the similarity threshold above which pairs are found; forThreshold() chooses them for a target threshold. Values
+ * without any tokens, e.g., empty values of an unpadded tokenizer, have no meaningful signature; they get ids but are
+ * not put into buckets, because they would all share every bucket, and they are therefore never candidates.
+ */
+public class LocalitySensitiveHashingIndex {
+
+    // The tokenizer that is used to transform string inputs into token sets.
+    @Getter
+    private final Tokenizer tokenizer;
+
+    // The number of bands of each signature.
+    @Getter
+    private final int bands;
+
+    // The number of signature entries per band.
+    @Getter
+    private final int rows;
+
+    // The hash functions that calculate the signatures.
+    private final MinHashFamily minHashFamily;
+
+    // The buckets of every band, which map the hash of a band to the ids of all values with that band.
+    private final List<Long2ObjectOpenHashMap<IntArrayList>> buckets;
+
+    // The signatures of all inserted values, stored consecutively in the order of their ids.
+    private final LongArrayList signatures = new LongArrayList();
+
+    public LocalitySensitiveHashingIndex(final Tokenizer tokenizer, final int bands, final int rows) {
+        this(tokenizer, bands, rows, 0x5DEECE66DL);
+    }
+
+    public LocalitySensitiveHashingIndex(final Tokenizer tokenizer, final int bands, final int rows, final long seed) {
+        if (bands < 1 || rows < 1)
+            throw new IllegalArgumentException("An LSH index needs at least one band and one row.");
+
+        this.tokenizer = tokenizer;
+        this.bands = bands;
+        this.rows = rows;
+        this.minHashFamily = new MinHashFamily(bands * rows, seed);
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++)
+            this.buckets.add(new Long2ObjectOpenHashMap<>());
+    }
+
+    /**
+     * Creates an index whose bands and rows are chosen such that pairs with a Jaccard similarity above the threshold
+     * become candidates with high probability and pairs below it rarely do.
+     * @param tokenizer The tokenizer for the inserted values.
+     * @param threshold The target Jaccard similarity threshold in (0, 1).
+     * @param numHashFunctions The maximum length of the signatures, i.e., bands * rows.
+     * @return The index.
+     */
+    public static LocalitySensitiveHashingIndex forThreshold(final Tokenizer tokenizer, final double threshold, final int numHashFunctions) {
+        int[] bandsAndRows = bandsAndRowsFor(threshold, numHashFunctions);
+        return new LocalitySensitiveHashingIndex(tokenizer, bandsAndRows[0], bandsAndRows[1]);
+    }
+
+    /**
+     * Chooses the number of bands and rows with bands * rows <= numHashFunctions that minimizes the sum of the
+     * probability mass of false positives (pairs below the threshold that become candidates) and false negatives
+     * (pairs above the threshold that do not).
+     * @param threshold The target Jaccard similarity threshold in (0, 1).
+     * @param numHashFunctions The maximum length of the signatures.
+     * @return The number of bands at index 0 and the number of rows at index 1.
+     */
+    public static int[] bandsAndRowsFor(final double threshold, final int numHashFunctions) {
+        if (threshold <= 0 || threshold >= 1)
+            throw new IllegalArgumentException("The threshold " + threshold + " is not in (0, 1).");
+
+        int[] best = {numHashFunctions, 1};
+        double bestError = Double.MAX_VALUE;
+        for (int bands = 1; bands <= numHashFunctions; bands++) {
+            int rows = numHashFunctions / bands;
+            double error = integrateCandidateProbability(bands, rows, 0, threshold) +
+                    (1 - threshold) - integrateCandidateProbability(bands, rows, threshold, 1);
+            if (error < bestError) {
+                bestError = error;
+                best = new int[]{bands, rows};
+            }
+        }
+        return best;
+    }
+
+    private static double integrateCandidateProbability(int bands, int rows, double from, double to) {
+        int steps = 100;
+        double width = (to - from) / steps;
+        double area = 0;
+        for (int i = 0; i < steps; i++) {
+            double similarity = from + (i + 0.5) * width;
+            area += (1 - Math.pow(1 - Math.pow(similarity, rows), bands)) * width;
+        }
+        return area;
+    }
+
+    /**
+     * Returns the number of values in this index.
+     * @return The number of values in this index.
+     */
+    public int size() {
+        return this.signatures.size() / this.minHashFamily.getNumHashFunctions();
+    }
+
+    /**
+     * Inserts the given value into the index.
+     * @param value The value that should be inserted.
+     * @return The id of the value, which is the number of values inserted before it.
+     */
+    public int add(final String value) {
+        return this.add(this.signatureOf(value));
+    }
+
+    /**
+     * Inserts all given values into the index; the id of values[i] is size() + i.
+     * @param values The values that should be inserted.
+     */
+    public void addAll(final String[] values) {
+        for (String value : values)
+            this.add(value);
+    }
+
+    private int add(long[] signature) {
+        int id = this.size();
+        this.signatures.addElements(this.signatures.size(), signature);
+        if (isEmpty(signature))
+            return id;
+        for (int band = 0; band < this.bands; band++)
+            this.buckets.get(band).computeIfAbsent(this.bandHash(signature, band), key -> new IntArrayList(1)).add(id);
+        return id;
+    }
+
+    /**
+     * Finds the ids of all values that share at least one bucket with the given value.
+     * @param value The value whose candidates should be found; it is not inserted.
+     * @return The ids of the candidates in ascending order; none for a value without tokens.
+     */
+    public int[] query(final String value) {
+        long[] signature = this.signatureOf(value);
+        if (isEmpty(signature))
+            return new int[0];
+        IntOpenHashSet candidates = new IntOpenHashSet();
+        for (int band = 0; band < this.bands; band++) {
+            IntArrayList bucket = this.buckets.get(band).get(this.bandHash(signature, band));
+            if (bucket != null)
+                candidates.addAll(bucket);
+        }
+        int[] ids = candidates.toIntArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Finds all pairs of inserted values that share at least one bucket.
+     * @return The candidate pairs as arrays {id1, id2} with id1 < id2, each pair once.
+     */
+    public List<int[]> candidatePairs() {
+        return this.candidatePairs(0);
+    }
+
+    /**
+     * Finds all pairs of inserted values that share at least one bucket and whose estimated Jaccard similarity, i.e.,
+     * the agreement of their full signatures, is at least minSimilarity.
+     * @param minSimilarity The minimum estimated similarity of the reported pairs.
+     * @return The candidate pairs as arrays {id1, id2} with id1 < id2, each pair once.
+     */
+    public List<int[]> candidatePairs(final double minSimilarity) {
+        LongOpenHashSet seen = new LongOpenHashSet();
+        List<int[]> pairs = new ArrayList<>();
+        for (Long2ObjectOpenHashMap<IntArrayList> bandBuckets : this.buckets) {
+            for (IntArrayList bucket : bandBuckets.values()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    for (int j = i + 1; j < bucket.size(); j++) {
+                        int id1 = bucket.getInt(i);
+                        int id2 = bucket.getInt(j);
+                        if (!seen.add(((long) id1 << 32) | id2))
+                            continue;
+                        if (minSimilarity <= 0 || this.estimate(id1, id2) >= minSimilarity)
+                            pairs.add(new int[]{id1, id2});
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of two inserted values by the agreement of their signatures.
+     * @param id1 The id of the first value.
+     * @param id2 The id of the second value.
+     * @return The estimated Jaccard similarity of the two values.
+     */
+    public double estimate(final int id1, final int id2) {
+        int length = this.minHashFamily.getNumHashFunctions();
+        long[] signatures = this.signatures.elements();
+        int agreements = 0;
+        for (int i = 0; i < length; i++)
+            if (signatures[id1 * length + i] == signatures[id2 * length + i])
+                agreements++;
+        return (double) agreements / length;
+    }
+
+    /**
+     * Checks whether the signature belongs to a value without tokens; such signatures consist of MinHashFamily.EMPTY
+     * entries only, which no token can produce.
+     */
+    private static boolean isEmpty(long[] signature) {
+        return signature.length == 0 || signature[0] == MinHashFamily.EMPTY;
+    }
+
+    private long[] signatureOf(String value) {
+        return this.minHashFamily.signature(this.tokenizer.tokenizeToIds((value == null) ? "" : value));
+    }
+
+    private long bandHash(long[] signature, int band) {
+        long hash = band;
+        for (int i = band * this.rows; i < (band + 1) * this.rows; i++)
+            hash = (hash ^ signature[i]) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+}
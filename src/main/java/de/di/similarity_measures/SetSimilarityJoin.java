@@ -0,0 +1,241 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A SetSimilarityJoin finds all pairs of values whose token sets have a Jaccard similarity (with set semantics) of at
+ * least a threshold t, without comparing all pairs (PPJoin). The tokens of all values are renamed by their global
+ * frequency, so that every token set is sorted from its rarest to its most frequent token. Two sets x and y with
+ * Jaccard(x, y) >= t must share at least one token in their prefixes of |x| - ceil(t * |x|) + 1 tokens, so only the
+ * prefixes are indexed and probed. Candidates are further pruned by their lengths (t * |x| <= |y| <= |x| / t) and by
+ * the positions of their first shared prefix tokens, which bound the overlap that the remaining tokens can add. The
+ * surviving candidates are verified by a merge of their token sets. The probes run in parallel over partitions of the
+ * values. Empty values, whose Jaccard similarity is undefined, are never reported.
+ */
+public class SetSimilarityJoin {
+
+    @Getter
+    @AllArgsConstructor
+    public static class SimilarPair {
+
+        // The index of the first value of the pair.
+        private final int index1;
+
+        // The index of the second value of the pair.
+        private final int index2;
+
+        // The Jaccard similarity of the two values.
+        private final double similarity;
+    }
+
+    // The tolerance for rounding errors when the threshold is applied to set sizes.
+    private static final double EPSILON = 1e-9;
+
+    // The tokenizer that is used to transform string inputs into token sets.
+    private final Tokenizer tokenizer;
+
+    // The minimum Jaccard similarity of the reported pairs.
+    @Getter
+    private final double threshold;
+
+    // The number of partitions that are probed in parallel.
+    private final int parallelism;
+
+    public SetSimilarityJoin(final Tokenizer tokenizer, final double threshold) {
+        this(tokenizer, threshold, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SetSimilarityJoin(final Tokenizer tokenizer, final double threshold, final int parallelism) {
+        if (!(threshold > 0 && threshold <= 1))
+            throw new IllegalArgumentException("The threshold " + threshold + " is not in (0, 1].");
+
+        this.tokenizer = tokenizer;
+        this.threshold = threshold;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Finds all pairs of values within the given array whose Jaccard similarity is at least the threshold.
+     * @param values The values that should be joined with themselves.
+     * @return The similar pairs with index1 < index2, each pair once, in no particular order.
+     */
+    public List<SimilarPair> selfJoin(final String[] values) {
+        int[][] records = this.tokenSets(values, new String[0]);
+        return this.join(records, records, true);
+    }
+
+    /**
+     * Finds all pairs of a value of values1 and a value of values2 whose Jaccard similarity is at least the threshold.
+     * @param values1 The values of the first side of the join.
+     * @param values2 The values of the second side of the join.
+     * @return The similar pairs, where index1 refers to values1 and index2 refers to values2, in no particular order.
+     */
+    public List<SimilarPair> join(final String[] values1, final String[] values2) {
+        int[][] records = this.tokenSets(values1, values2);
+        int[][] records1 = Arrays.copyOfRange(records, 0, values1.length);
+        int[][] records2 = Arrays.copyOfRange(records, values1.length, records.length);
+        return this.join(records1, records2, false);
+    }
+
+    /**
+     * Tokenizes all values into sets of token ranks, where rank 0 is the globally rarest token of all values. Every
+     * set is sorted by rank, i.e., it starts with its rarest tokens.
+     */
+    private int[][] tokenSets(String[] values1, String[] values2) {
+        int[][] records = new int[values1.length + values2.length][];
+        int maxId = -1;
+        for (int i = 0; i < records.length; i++) {
+            String value = (i < values1.length) ? values1[i] : values2[i - values1.length];
+            int[] ids = this.tokenizer.tokenizeToIds((value == null) ? "" : value);
+            int size = 0;
+            int[] distinct = new int[ids.length];
+            for (int k = 0; k < ids.length; k++)
+                if (k == 0 || ids[k] != ids[k - 1])
+                    distinct[size++] = ids[k];
+            records[i] = Arrays.copyOf(distinct, size);
+            if (size > 0)
+                maxId = Math.max(maxId, distinct[size - 1]);
+        }
+
+        int[] frequencies = new int[maxId + 1];
+        for (int[] record : records)
+            for (int id : record)
+                frequencies[id]++;
+        int[] ids = IntStream.range(0, maxId + 1).filter(id -> frequencies[id] > 0).boxed()
+                .sorted((id1, id2) -> (frequencies[id1] != frequencies[id2]) ? Integer.compare(frequencies[id1], frequencies[id2]) : Integer.compare(id1, id2))
+                .mapToInt(Integer::intValue).toArray();
+        int[] ranks = new int[maxId + 1];
+        for (int rank = 0; rank < ids.length; rank++)
+            ranks[ids[rank]] = rank;
+
+        for (int[] record : records) {
+            for (int k = 0; k < record.length; k++)
+                record[k] = ranks[record[k]];
+            Arrays.sort(record);
+        }
+        return records;
+    }
+
+    private int prefixLength(int size) {
+        return size - this.minOverlap(size) + 1;
+    }
+
+    /**
+     * Returns the minimum number of tokens that a set of the given size shares with every set that is similar to it.
+     * Similar sets share at least one token, even if the threshold is so small that t * |x| rounds down to 0.
+     */
+    private int minOverlap(int size) {
+        return Math.max(1, (int) Math.ceil(this.threshold * size - EPSILON));
+    }
+
+    /**
+     * Joins the probe records with the indexed records. In a self-join, both are the same records and a probe only
+     * considers records that precede it in the order by size, so that every pair is found once.
+     */
+    private List<SimilarPair> join(int[][] probeRecords, int[][] indexRecords, boolean selfJoin) {
+        // Process the records by ascending size, so that the index lists are sorted by size as well
+        int[] indexOrder = orderBySize(indexRecords);
+        int[] positions = new int[indexRecords.length];
+        for (int p = 0; p < indexOrder.length; p++)
+            positions[indexOrder[p]] = p;
+
+        // The inverted index maps every token rank to the records that have it in their prefix, with its position
+        int numTokens = 0;
+        for (int[] record : indexRecords)
+            if (record.length > 0)
+                numTokens = Math.max(numTokens, record[record.length - 1] + 1);
+        for (int[] record : probeRecords)
+            if (record.length > 0)
+                numTokens = Math.max(numTokens, record[record.length - 1] + 1);
+        IntArrayList[] index = new IntArrayList[numTokens];
+        for (int indexRecord : indexOrder) {
+            int[] record = indexRecords[indexRecord];
+            for (int k = 0; k < this.prefixLength(record.length) && k < record.length; k++) {
+                if (index[record[k]] == null)
+                    index[record[k]] = new IntArrayList();
+                index[record[k]].add(indexRecord);
+                index[record[k]].add(k);
+            }
+        }
+
+        int[] probeOrder = selfJoin ? indexOrder : orderBySize(probeRecords);
+        List<List<SimilarPair>> results = new ArrayList<>(this.parallelism);
+        for (int partition = 0; partition < this.parallelism; partition++)
+            results.add(new ArrayList<>());
+
+        IntStream.range(0, this.parallelism).parallel().forEach(partition -> {
+            List<SimilarPair> result = results.get(partition);
+            // The accumulated prefix overlap of every candidate; -1 marks pruned candidates
+            int[] overlaps = new int[indexRecords.length];
+            IntArrayList candidates = new IntArrayList();
+
+            // Round-robin partitions balance the cost, which grows with the record size
+            for (int p = partition; p < probeOrder.length; p += this.parallelism) {
+                int probeRecord = probeOrder[p];
+                int[] x = probeRecords[probeRecord];
+                if (x.length == 0)
+                    continue;
+                int minSize = this.minOverlap(x.length);
+                int maxSize = selfJoin ? x.length : (int) Math.floor(x.length / this.threshold + EPSILON);
+
+                for (int i = 0; i < this.prefixLength(x.length); i++) {
+                    IntArrayList postings = index[x[i]];
+                    if (postings == null)
+                        continue;
+                    for (int k = 0; k < postings.size(); k += 2) {
+                        int candidate = postings.getInt(k);
+                        if (selfJoin && positions[candidate] >= p)
+                            continue;
+                        int[] y = indexRecords[candidate];
+                        if (y.length < minSize || y.length > maxSize || overlaps[candidate] < 0)
+                            continue;
+
+                        // Positional filter: the tokens after the current positions can add at most this overlap
+                        int j = postings.getInt(k + 1);
+                        int requiredOverlap = (int) Math.ceil(this.threshold / (1 + this.threshold) * (x.length + y.length) - EPSILON);
+                        int upperBound = overlaps[candidate] + 1 + Math.min(x.length - i - 1, y.length - j - 1);
+                        if (overlaps[candidate] == 0)
+                            candidates.add(candidate);
+                        if (upperBound < requiredOverlap)
+                            overlaps[candidate] = -1;
+                        else
+                            overlaps[candidate]++;
+                    }
+                }
+
+                for (int c = 0; c < candidates.size(); c++) {
+                    int candidate = candidates.getInt(c);
+                    if (overlaps[candidate] > 0) {
+                        double similarity = Jaccard.similarityOfSorted(x, indexRecords[candidate], false);
+                        if (similarity >= this.threshold) {
+                            if (selfJoin)
+                                result.add(new SimilarPair(Math.min(probeRecord, candidate), Math.max(probeRecord, candidate), similarity));
+                            else
+                                result.add(new SimilarPair(probeRecord, candidate, similarity));
+                        }
+                    }
+                    overlaps[candidate] = 0;
+                }
+                candidates.clear();
+            }
+        });
+
+        List<SimilarPair> pairs = new ArrayList<>();
+        results.forEach(pairs::addAll);
+        return pairs;
+    }
+
+    private static int[] orderBySize(int[][] records) {
+        return IntStream.range(0, records.length).boxed()
+                .sorted((r1, r2) -> Integer.compare(records[r1].length, records[r2].length))
+                .mapToInt(Integer::intValue).toArray();
+    }
+}
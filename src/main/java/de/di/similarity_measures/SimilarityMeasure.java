@@ -1,8 +1,107 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.helper.PreparedValue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
 public interface SimilarityMeasure {
 
     double calculate(final String string1, final String string2);
 
     double calculate(final String[] strings1, final String[] strings2);
+
+    /**
+     * Calculates the similarity of the two input strings, but only as precisely as needed to decide whether it reaches
+     * the given minimum similarity. Measures that can prune their calculation for dissimilar strings override this
+     * method; by default, the exact similarity is calculated.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param minSimilarity The similarity that the caller is interested in.
+     * @return The exact similarity if it is at least minSimilarity; otherwise an upper bound of the similarity that is
+     * smaller than minSimilarity.
+     */
+    default double calculate(final String string1, final String string2, final double minSimilarity) {
+        return this.calculate(string1, string2);
+    }
+
+    /**
+     * Derives the features of the input string that this measure compares, so that a value that takes part in many
+     * comparisons is, e.g., tokenized only once. Measures that compare derived features override this method together
+     * with calculate(PreparedValue, PreparedValue); by default, the value itself is the only feature.
+     * @param string The string that should be prepared.
+     * @return The prepared string.
+     */
+    default PreparedValue prepare(final String string) {
+        return new PreparedValue(string);
+    }
+
+    /**
+     * Calculates the similarity of the two prepared values, which is the same as the similarity of their strings.
+     * @param value1 The first prepared value for the similarity calculation; it must be prepared by this measure.
+     * @param value2 The second prepared value for the similarity calculation; it must be prepared by this measure.
+     * @return The similarity of the two arguments.
+     */
+    default double calculate(final PreparedValue value1, final PreparedValue value2) {
+        return this.calculate(value1.getValue(), value2.getValue());
+    }
+
+    /**
+     * Calculates the similarity of the two prepared values, but only as precisely as needed to decide whether it
+     * reaches the given minimum similarity; see calculate(String, String, double).
+     * @param value1 The first prepared value for the similarity calculation; it must be prepared by this measure.
+     * @param value2 The second prepared value for the similarity calculation; it must be prepared by this measure.
+     * @param minSimilarity The similarity that the caller is interested in.
+     * @return The exact similarity if it is at least minSimilarity; otherwise an upper bound of the similarity that is
+     * smaller than minSimilarity.
+     */
+    default double calculate(final PreparedValue value1, final PreparedValue value2, final double minSimilarity) {
+        return this.calculate(value1.getValue(), value2.getValue(), minSimilarity);
+    }
+
+    /**
+     * Calculates the similarities of one query string to many candidate strings. Measures that can prepare the query
+     * once, e.g., tokenize it or build its pattern masks, override this method.
+     * @param query The string that is compared to all candidates.
+     * @param candidates The strings that the query is compared to.
+     * @return The similarities, where similarities[i] = calculate(query, candidates[i]).
+     */
+    default double[] calculateOneToMany(final String query, final String[] candidates) {
+        double[] similarities = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++)
+            similarities[i] = this.calculate(query, candidates[i]);
+        return similarities;
+    }
+
+    /**
+     * Calculates the similarities of all pairs of strings from the two input arrays. The rows of the matrix are
+     * calculated with calculateOneToMany(), so that every string of strings1 is prepared only once.
+     * @param strings1 The strings of the rows.
+     * @param strings2 The strings of the columns.
+     * @param parallel The choice of whether the rows should be calculated in parallel.
+     * @return The similarity matrix, where matrix[i][j] = calculate(strings1[i], strings2[j]).
+     */
+    default double[][] calculateMatrix(final String[] strings1, final String[] strings2, final boolean parallel) {
+        double[][] matrix = new double[strings1.length][];
+        IntStream rows = IntStream.range(0, strings1.length);
+        (parallel ? rows.parallel() : rows).forEach(i -> matrix[i] = this.calculateOneToMany(strings1[i], strings2));
+        return matrix;
+    }
+
+    /**
+     * Calculates the similarities of the given pairs of values, e.g., the candidate pairs of a blocking or an LSH index.
+     * @param values The values that the pairs refer to.
+     * @param pairs The pairs as arrays {index1, index2} of indexes into values.
+     * @param parallel The choice of whether the pairs should be calculated in parallel.
+     * @return The similarities, where similarities[k] = calculate(values[pairs.get(k)[0]], values[pairs.get(k)[1]]).
+     */
+    default double[] calculatePairs(final String[] values, final List<int[]> pairs, final boolean parallel) {
+        double[] similarities = new double[pairs.size()];
+        IntStream indexes = IntStream.range(0, pairs.size());
+        (parallel ? indexes.parallel() : indexes).forEach(k -> {
+            int[] pair = pairs.get(k);
+            similarities[k] = this.calculate(values[pair[0]], values[pair[1]]);
+        });
+        return similarities;
+    }
 }
@@ -0,0 +1,384 @@
+package de.di.similarity_measures;
+
+import de.di.Relation;
+import de.di.similarity_measures.helper.PreparedValue;
+import de.di.similarity_measures.helper.TokenDictionary;
+import de.di.similarity_measures.helper.Tokenizer;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * TfIdfCosine is the cosine similarity of the TF-IDF vectors of two strings, so that shared rare tokens count more
+ * than shared frequent tokens. The measure is fitted once on a column of values: The inverse document frequency of a
+ * token is log((n + 1) / (df + 1)) + 1, where n is the number of values and df the number of values that contain the
+ * token, and the term frequency is the number of occurrences of the token in a value. For every distinct value of the
+ * column, the L2-normalized vector is precomputed as a sparse vector of sorted term ids and float weights, so that a
+ * comparison is a single merge of two sparse vectors. Values that were not part of the column are vectorized on the
+ * fly; their unseen tokens get the largest idf and temporary ids that are local to the comparison, so that comparisons
+ * never modify the measure and can run in many threads without locking. Prepared values carry their vectors; the
+ * unseen tokens of prepared values get ids from a dictionary of the measure, so that they match across all values that
+ * the measure prepares. Like Jaccard, the similarity of two empty vectors is undefined (NaN). An inverted index over
+ * the fitted vectors answers top-k queries without comparing the query to every value.
+ */
+public class TfIdfCosine implements SimilarityMeasure {
+
+    @Getter
+    @AllArgsConstructor
+    public static class Match {
+
+        // The matched value of the fitted column.
+        private final String value;
+
+        // The cosine similarity of the matched value to the query.
+        private final double similarity;
+    }
+
+    /**
+     * An L2-normalized sparse vector with the term ids in ascending order.
+     */
+    private static final class SparseVector {
+        private final int[] terms;
+        private final float[] weights;
+
+        private SparseVector(int[] terms, float[] weights) {
+            this.terms = terms;
+            this.weights = weights;
+        }
+    }
+
+    // The tokenizer that is used to transform string inputs into token lists.
+    private final Tokenizer tokenizer;
+
+    // The ids of the tokens of the fitted column; it is only read after fitting.
+    private final Object2IntOpenHashMap<String> termIds = new Object2IntOpenHashMap<>();
+
+    // The inverse document frequency of every term id of the fitted column.
+    private final float[] idfs;
+
+    // The idf of terms that do not occur in the fitted column.
+    private final float unseenIdf;
+
+    // The ids of the unseen tokens of prepared values, which are offset by the number of fitted terms.
+    private final TokenDictionary unseenTerms = new TokenDictionary();
+
+    // The ids of the distinct values of the fitted column.
+    private final Object2IntOpenHashMap<String> valueIds = new Object2IntOpenHashMap<>();
+
+    // The distinct values of the fitted column and their vectors, in the order of their ids.
+    private final List<String> values = new ObjectArrayList<>();
+    private final List<SparseVector> vectors = new ObjectArrayList<>();
+
+    // The inverted index, which lists the ids of the values that contain every term and the according weights.
+    private final int[][] postingValues;
+    private final float[][] postingWeights;
+
+    /**
+     * Fits the measure on the values of one attribute of the given relation.
+     * @param tokenizer The tokenizer that is used to transform string inputs into token lists.
+     * @param relation The relation whose column should be used to calculate the document frequencies.
+     * @param attribute The index of the attribute whose values are the documents.
+     */
+    public TfIdfCosine(final Tokenizer tokenizer, final Relation relation, final int attribute) {
+        this(tokenizer, relation.getColumns()[attribute]);
+    }
+
+    /**
+     * Fits the measure on the given values.
+     * @param tokenizer The tokenizer that is used to transform string inputs into token lists.
+     * @param column The values whose tokens define the document frequencies; every value counts as one document.
+     */
+    public TfIdfCosine(final Tokenizer tokenizer, final String[] column) {
+        this.tokenizer = tokenizer;
+        this.valueIds.defaultReturnValue(-1);
+        this.termIds.defaultReturnValue(-1);
+
+        // Count the document frequencies of all terms, once per distinct value weighted by its number of occurrences
+        IntArrayList valueCounts = new IntArrayList();
+        List<int[]> valueTerms = new ArrayList<>();
+        for (String value : column) {
+            value = (value == null) ? "" : value;
+            int id = this.valueIds.getInt(value);
+            if (id < 0) {
+                this.valueIds.put(value, id = this.values.size());
+                this.values.add(value);
+                valueTerms.add(this.fitTermsOf(this.tokenizer.tokenize(value)));
+                valueCounts.add(0);
+            }
+            valueCounts.set(id, valueCounts.getInt(id) + 1);
+        }
+        int[] documentFrequencies = new int[this.termIds.size()];
+        for (int id = 0; id < valueTerms.size(); id++) {
+            int[] terms = valueTerms.get(id);
+            for (int i = 0; i < terms.length; i++)
+                if (i == 0 || terms[i] != terms[i - 1])
+                    documentFrequencies[terms[i]] += valueCounts.getInt(id);
+        }
+        this.idfs = new float[documentFrequencies.length];
+        for (int term = 0; term < this.idfs.length; term++)
+            this.idfs[term] = idf(column.length, documentFrequencies[term]);
+        this.unseenIdf = idf(column.length, 0);
+
+        // Precompute the vectors and invert them
+        IntArrayList[] postingValues = new IntArrayList[this.idfs.length];
+        FloatArrayList[] postingWeights = new FloatArrayList[this.idfs.length];
+        for (int id = 0; id < valueTerms.size(); id++) {
+            SparseVector vector = this.vectorOf(valueTerms.get(id));
+            this.vectors.add(vector);
+            for (int i = 0; i < vector.terms.length; i++) {
+                int term = vector.terms[i];
+                if (postingValues[term] == null) {
+                    postingValues[term] = new IntArrayList();
+                    postingWeights[term] = new FloatArrayList();
+                }
+                postingValues[term].add(id);
+                postingWeights[term].add(vector.weights[i]);
+            }
+        }
+        this.postingValues = new int[postingValues.length][];
+        this.postingWeights = new float[postingWeights.length][];
+        for (int term = 0; term < postingValues.length; term++) {
+            this.postingValues[term] = (postingValues[term] == null) ? new int[0] : postingValues[term].toIntArray();
+            this.postingWeights[term] = (postingWeights[term] == null) ? new float[0] : postingWeights[term].toFloatArray();
+        }
+    }
+
+    private static float idf(int numDocuments, int documentFrequency) {
+        return (float) (Math.log((numDocuments + 1.0) / (documentFrequency + 1.0)) + 1.0);
+    }
+
+    /**
+     * Returns the sorted ids of the given tokens while fitting, assigning new ids to new tokens.
+     */
+    private int[] fitTermsOf(String[] tokens) {
+        int[] terms = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            int term = this.termIds.getInt(tokens[i]);
+            if (term < 0)
+                this.termIds.put(tokens[i], term = this.termIds.size());
+            terms[i] = term;
+        }
+        Arrays.sort(terms);
+        return terms;
+    }
+
+    /**
+     * Returns the sorted ids of the given tokens without modifying the fitted ids: Tokens that were not fitted get
+     * temporary ids above all fitted ids from the given map, which must be shared by all values of one comparison.
+     */
+    private int[] termsOf(String[] tokens, Object2IntOpenHashMap<String> unseenTermIds) {
+        int[] terms = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            int term = this.termIds.getInt(tokens[i]);
+            if (term < 0) {
+                term = unseenTermIds.getInt(tokens[i]);
+                if (term < 0)
+                    unseenTermIds.put(tokens[i], term = this.idfs.length + unseenTermIds.size());
+            }
+            terms[i] = term;
+        }
+        Arrays.sort(terms);
+        return terms;
+    }
+
+    /**
+     * Returns the sorted ids of the given tokens with the ids of unseen tokens from the dictionary of prepared values.
+     */
+    private int[] preparedTermsOf(String[] tokens) {
+        int[] terms = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            int term = this.termIds.getInt(tokens[i]);
+            terms[i] = (term < 0) ? this.idfs.length + this.unseenTerms.idOf(tokens[i]) : term;
+        }
+        Arrays.sort(terms);
+        return terms;
+    }
+
+    private static Object2IntOpenHashMap<String> newUnseenTermIds() {
+        Object2IntOpenHashMap<String> unseenTermIds = new Object2IntOpenHashMap<>();
+        unseenTermIds.defaultReturnValue(-1);
+        return unseenTermIds;
+    }
+
+    /**
+     * Builds the L2-normalized TF-IDF vector of the given sorted term ids, in which repeated terms count repeatedly.
+     */
+    private SparseVector vectorOf(int[] sortedTerms) {
+        int size = 0;
+        for (int i = 0; i < sortedTerms.length; i++)
+            if (i == 0 || sortedTerms[i] != sortedTerms[i - 1])
+                size++;
+
+        int[] terms = new int[size];
+        float[] weights = new float[size];
+        double norm = 0;
+        int k = -1;
+        for (int i = 0; i < sortedTerms.length; i++) {
+            int term = sortedTerms[i];
+            if (i == 0 || term != sortedTerms[i - 1])
+                terms[++k] = term;
+            weights[k] += (term < this.idfs.length) ? this.idfs[term] : this.unseenIdf;
+        }
+        for (float weight : weights)
+            norm += (double) weight * weight;
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < size; i++)
+            weights[i] = (float) (weights[i] / norm);
+        return new SparseVector(terms, weights);
+    }
+
+    /**
+     * Returns the precomputed vector of the given value or null if the value was not part of the fitted column.
+     */
+    private SparseVector fittedVectorOf(String value) {
+        int id = this.valueIds.getInt((value == null) ? "" : value);
+        return (id < 0) ? null : this.vectors.get(id);
+    }
+
+    private SparseVector unfittedVectorOf(String value, Object2IntOpenHashMap<String> unseenTermIds) {
+        return this.vectorOf(this.termsOf(this.tokenizer.tokenize((value == null) ? "" : value), unseenTermIds));
+    }
+
+    /**
+     * Calculates the TF-IDF cosine similarity of the two input strings; the vectors of fitted values are precomputed.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The cosine similarity of the TF-IDF vectors of the two arguments.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        SparseVector vector1 = this.fittedVectorOf(string1);
+        SparseVector vector2 = this.fittedVectorOf(string2);
+        if (vector1 == null || vector2 == null) {
+            // The temporary term ids are only needed if a value was not fitted
+            Object2IntOpenHashMap<String> unseenTermIds = newUnseenTermIds();
+            if (vector1 == null)
+                vector1 = this.unfittedVectorOf(string1, unseenTermIds);
+            if (vector2 == null)
+                vector2 = this.unfittedVectorOf(string2, unseenTermIds);
+        }
+        return dot(vector1.terms, vector1.weights, vector2.terms, vector2.weights);
+    }
+
+    /**
+     * Calculates the TF-IDF cosine similarity of the two token lists.
+     * @param strings1 The first token list argument for the similarity calculation.
+     * @param strings2 The second token list argument for the similarity calculation.
+     * @return The cosine similarity of the TF-IDF vectors of the two arguments.
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        Object2IntOpenHashMap<String> unseenTermIds = newUnseenTermIds();
+        SparseVector vector1 = this.vectorOf(this.termsOf(strings1, unseenTermIds));
+        SparseVector vector2 = this.vectorOf(this.termsOf(strings2, unseenTermIds));
+        return dot(vector1.terms, vector1.weights, vector2.terms, vector2.weights);
+    }
+
+    /**
+     * Prepares the input string by looking up or building its TF-IDF vector once.
+     * @param string The string that should be prepared.
+     * @return The prepared string with the term ids and weights of its vector.
+     */
+    @Override
+    public PreparedValue prepare(final String string) {
+        SparseVector vector = this.fittedVectorOf(string);
+        if (vector == null)
+            vector = this.vectorOf(this.preparedTermsOf(this.tokenizer.tokenize((string == null) ? "" : string)));
+        return new PreparedValue(string, vector.terms, vector.weights);
+    }
+
+    /**
+     * Calculates the TF-IDF cosine similarity of the two prepared values on their vectors.
+     * @param value1 The first prepared value for the similarity calculation.
+     * @param value2 The second prepared value for the similarity calculation.
+     * @return The cosine similarity of the TF-IDF vectors of the two arguments.
+     */
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2) {
+        return dot(value1.getTokenIds(), value1.getWeights(), value2.getTokenIds(), value2.getWeights());
+    }
+
+    @Override
+    public double calculate(final PreparedValue value1, final PreparedValue value2, final double minSimilarity) {
+        return this.calculate(value1, value2);
+    }
+
+    /**
+     * Calculates the dot product of two normalized sparse vectors with a merge of their sorted terms.
+     */
+    private static double dot(int[] terms1, float[] weights1, int[] terms2, float[] weights2) {
+        if (terms1.length == 0 || terms2.length == 0)
+            return (terms1.length == terms2.length) ? Double.NaN : 0;
+
+        double dot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < terms1.length && j < terms2.length) {
+            if (terms1[i] < terms2[j]) {
+                i++;
+            } else if (terms1[i] > terms2[j]) {
+                j++;
+            } else {
+                dot += (double) weights1[i] * weights2[j];
+                i++;
+                j++;
+            }
+        }
+        return Math.min(1.0, dot);
+    }
+
+    /**
+     * Finds the k distinct values of the fitted column with the highest similarity to the query. The scores are
+     * accumulated over the inverted index, so only values that share a term with the query are scored.
+     * @param query The string that the values should be similar to.
+     * @param k The maximum number of values that should be reported.
+     * @return The at most k most similar values with a positive similarity, ordered by descending similarity.
+     */
+    public List<Match> topK(final String query, final int k) {
+        SparseVector vector = this.fittedVectorOf(query);
+        if (vector == null)
+            vector = this.unfittedVectorOf(query, newUnseenTermIds());
+        double[] scores = new double[this.values.size()];
+        IntArrayList scored = new IntArrayList();
+        for (int i = 0; i < vector.terms.length; i++) {
+            int term = vector.terms[i];
+            if (term >= this.postingValues.length)
+                continue;
+            int[] postingValues = this.postingValues[term];
+            float[] postingWeights = this.postingWeights[term];
+            for (int p = 0; p < postingValues.length; p++) {
+                if (scores[postingValues[p]] == 0)
+                    scored.add(postingValues[p]);
+                scores[postingValues[p]] += (double) vector.weights[i] * postingWeights[p];
+            }
+        }
+
+        // Keep the k best values with the worst at the head; ties are broken by the earlier value
+        Comparator<Integer> order = Comparator.<Integer>comparingDouble(id -> scores[id]).thenComparing(Comparator.<Integer>reverseOrder());
+        PriorityQueue<Integer> best = new PriorityQueue<>(order);
+        for (int id : scored) {
+            if (best.size() < k) {
+                best.add(id);
+            } else if (k > 0 && order.compare(id, best.peek()) > 0) {
+                best.poll();
+                best.add(id);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int id = best.poll();
+            matches.add(0, new Match(this.values.get(id), Math.min(1.0, scores[id])));
+        }
+        return matches;
+    }
+}
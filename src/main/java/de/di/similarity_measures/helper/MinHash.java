@@ -1,7 +1,6 @@
 package de.di.similarity_measures.helper;
 
 import java.util.Comparator;
-import java.util.stream.Stream;
 
 public class MinHash {
 
@@ -16,9 +15,20 @@ public class MinHash {
         if (strings.length == 0)
             return "";
 
-        return Stream.of(strings)
-                .min(this.comparator)
-                .orElseThrow();
+        return strings[this.indexOf(strings)];
+    }
+
+    /**
+     * Returns the position of the token that hash() chooses, so that callers can map the choice to, e.g., a token id.
+     * @param strings The tokens to be hashed.
+     * @return The position of the first minimal token or -1 if there are no tokens.
+     */
+    public int indexOf(final String[] strings) {
+        int index = -1;
+        for (int i = 0; i < strings.length; i++)
+            if (index < 0 || this.comparator.compare(strings[i], strings[index]) < 0)
+                index = i;
+        return index;
     }
 
     private Comparator<String> createComparatorFor(int sortByPosition) {
@@ -0,0 +1,171 @@
+package de.di.similarity_measures.helper;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A MinHashFamily is a set of seeded, independent 64-bit hash functions that calculates MinHash signatures of token
+ * sets. Every token is hashed once to a well-mixed 64-bit value x, and the i-th hash function maps x to
+ * (a[i] * x + b[i]) >>> 1 with a random odd a[i] and a random b[i] (modulo 2^64). The product and sum are a bijection
+ * on the 64-bit values; the shift drops the lowest bit, so two values share every hash and all hashes have 63 random
+ * bits below a cleared sign bit, which keeps them below EMPTY. The i-th entry of a signature is the minimum of the i-th
+ * hash function over all tokens, so a signature of any length is built in a single pass over the tokens. The
+ * probability that two signatures agree at a position approximates the Jaccard similarity (with set semantics) of their
+ * token sets. Families with the same size and seed produce comparable signatures.
+ */
+public class MinHashFamily {
+
+    // The signature entry of an empty token set, i.e., the maximum of all hash values.
+    public static final long EMPTY = Long.MAX_VALUE;
+
+    // The number of hash functions, i.e., the length of the signatures.
+    @Getter
+    private final int numHashFunctions;
+
+    // The seed from which the parameters of the hash functions are drawn.
+    @Getter
+    private final long seed;
+
+    // The odd multipliers of the hash functions.
+    private final long[] multipliers;
+
+    // The addends of the hash functions.
+    private final long[] addends;
+
+    public MinHashFamily(final int numHashFunctions) {
+        this(numHashFunctions, 0x5DEECE66DL);
+    }
+
+    public MinHashFamily(final int numHashFunctions, final long seed) {
+        if (numHashFunctions < 1)
+            throw new IllegalArgumentException("A MinHash family needs at least one hash function.");
+
+        this.numHashFunctions = numHashFunctions;
+        this.seed = seed;
+        this.multipliers = new long[numHashFunctions];
+        this.addends = new long[numHashFunctions];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < numHashFunctions; i++) {
+            this.multipliers[i] = random.nextLong() | 1L;
+            this.addends[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Calculates the MinHash signature of the given token codes, as they are created by Tokenizer.tokenizeToCodes().
+     * Repeated codes and the order of the codes do not change the signature.
+     * @param tokenCodes The token codes of a value.
+     * @return The signature with numHashFunctions entries; all entries are EMPTY if there are no tokens.
+     */
+    public long[] signature(final long[] tokenCodes) {
+        long[] signature = this.emptySignature();
+        for (long tokenCode : tokenCodes)
+            this.update(signature, mix(tokenCode));
+        return signature;
+    }
+
+    /**
+     * Calculates the MinHash signature of the given token ids, as they are created by a TokenStore or a TokenDictionary.
+     * @param tokenIds The token ids of a value.
+     * @return The signature with numHashFunctions entries; all entries are EMPTY if there are no tokens.
+     */
+    public long[] signature(final int[] tokenIds) {
+        long[] signature = this.emptySignature();
+        for (int tokenId : tokenIds)
+            this.update(signature, mix(tokenId));
+        return signature;
+    }
+
+    /**
+     * Calculates the MinHash signature of the given tokens. Note that the signatures of token strings are not
+     * comparable with the signatures of token codes or token ids.
+     * @param tokens The tokens of a value.
+     * @return The signature with numHashFunctions entries; all entries are EMPTY if there are no tokens.
+     */
+    public long[] signature(final String[] tokens) {
+        long[] signature = this.emptySignature();
+        for (String token : tokens) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < token.length(); i++)
+                hash = (hash ^ token.charAt(i)) * 0x100000001B3L;
+            this.update(signature, mix(hash ^ token.length()));
+        }
+        return signature;
+    }
+
+    /**
+     * Reduces a 64-bit signature to a compact signature with bits 31 to 62 of every entry, i.e., the upper 32 of its 63
+     * random bits, because bit 63 is always 0. Compact signatures use half of the memory and agree by chance only with
+     * a probability of 2^-32 per entry.
+     * @param signature The 64-bit signature.
+     * @return The compact signature.
+     */
+    public static int[] compact(final long[] signature) {
+        int[] compact = new int[signature.length];
+        for (int i = 0; i < signature.length; i++)
+            compact[i] = (int) (signature[i] >>> 31);
+        return compact;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of two token sets as the fraction of positions at which their signatures agree.
+     * @param signature1 The signature of the first token set.
+     * @param signature2 The signature of the second token set, created by the same family.
+     * @return The estimated Jaccard similarity of the two token sets.
+     */
+    public static double similarity(final long[] signature1, final long[] signature2) {
+        checkLengths(signature1.length, signature2.length);
+        int agreements = 0;
+        for (int i = 0; i < signature1.length; i++)
+            if (signature1[i] == signature2[i])
+                agreements++;
+        return (double) agreements / signature1.length;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of two token sets as the fraction of positions at which their compact
+     * signatures agree.
+     * @param signature1 The compact signature of the first token set.
+     * @param signature2 The compact signature of the second token set, created by the same family.
+     * @return The estimated Jaccard similarity of the two token sets.
+     */
+    public static double similarity(final int[] signature1, final int[] signature2) {
+        checkLengths(signature1.length, signature2.length);
+        int agreements = 0;
+        for (int i = 0; i < signature1.length; i++)
+            if (signature1[i] == signature2[i])
+                agreements++;
+        return (double) agreements / signature1.length;
+    }
+
+    private static void checkLengths(int length1, int length2) {
+        if (length1 != length2)
+            throw new IllegalArgumentException("Signatures of different lengths (" + length1 + " and " + length2 + ") are not comparable.");
+    }
+
+    private long[] emptySignature() {
+        long[] signature = new long[this.numHashFunctions];
+        Arrays.fill(signature, EMPTY);
+        return signature;
+    }
+
+    /**
+     * Lowers every entry of the signature to the according hash function of the given token hash, if that is smaller.
+     */
+    private void update(long[] signature, long hash) {
+        for (int i = 0; i < signature.length; i++) {
+            // Clearing the sign bit keeps EMPTY above all hash values
+            long value = (this.multipliers[i] * hash + this.addends[i]) >>> 1;
+            if (value < signature[i])
+                signature[i] = value;
+        }
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,95 @@
+package de.di.similarity_measures.helper;
+
+import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A PatternMask holds the match bit vectors of a pattern string for bit-parallel edit distance calculations: For every
+ * character c, bit i of the mask of c is set if the pattern has c at position i. Patterns longer than 64 characters are
+ * split into several 64-bit words. Masks of characters below 256 are stored in a flat array, all others in a hash map.
+ * A PatternMask can be built once and then be compared against many strings, and it can be reset to another pattern
+ * to reuse its memory.
+ */
+public class PatternMask {
+
+    private static final int ASCII_SIZE = 256;
+
+    // The pattern whose masks are stored.
+    @Getter
+    private String pattern;
+
+    // The number of 64-bit words per mask.
+    @Getter
+    private int words;
+
+    // The masks of the characters below ASCII_SIZE, stored as asciiMasks[c * words + word].
+    private long[] asciiMasks;
+
+    // The masks of all other characters of the pattern.
+    private final Char2ObjectOpenHashMap<long[]> otherMasks = new Char2ObjectOpenHashMap<>();
+
+    public PatternMask(final String pattern) {
+        this.asciiMasks = new long[0];
+        this.reset(pattern);
+    }
+
+    /**
+     * Replaces the pattern of this mask, reusing the memory of the previous pattern where possible.
+     * @param pattern The new pattern.
+     * @return This mask.
+     */
+    public PatternMask reset(final String pattern) {
+        int words = Math.max(1, (pattern.length() + 63) >>> 6);
+        if (this.asciiMasks.length < ASCII_SIZE * words) {
+            this.asciiMasks = new long[ASCII_SIZE * words];
+        } else if (this.pattern != null) {
+            // Clear only the masks that the previous pattern has set
+            for (int i = 0; i < this.pattern.length(); i++) {
+                char c = this.pattern.charAt(i);
+                if (c < ASCII_SIZE)
+                    Arrays.fill(this.asciiMasks, c * this.words, (c + 1) * this.words, 0L);
+            }
+        }
+        if (!this.otherMasks.isEmpty())
+            this.otherMasks.clear();
+
+        this.pattern = pattern;
+        this.words = words;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            long bit = 1L << i;
+            if (c < ASCII_SIZE) {
+                this.asciiMasks[c * words + (i >>> 6)] |= bit;
+            } else {
+                long[] masks = this.otherMasks.get(c);
+                if (masks == null)
+                    this.otherMasks.put(c, masks = new long[words]);
+                masks[i >>> 6] |= bit;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the length of the pattern.
+     * @return The length of the pattern.
+     */
+    public int length() {
+        return this.pattern.length();
+    }
+
+    /**
+     * Returns the match bit vector of the given character for the given word of the pattern.
+     * @param word The index of the 64-bit word, i.e., of the pattern positions [64 * word, 64 * word + 63].
+     * @param c The character.
+     * @return The bit vector of the positions in the word at which the pattern has the character.
+     */
+    public long get(int word, char c) {
+        if (c < ASCII_SIZE)
+            return this.asciiMasks[c * this.words + word];
+        long[] masks = this.otherMasks.get(c);
+        return (masks == null) ? 0L : masks[word];
+    }
+}
@@ -0,0 +1,34 @@
+package de.di.similarity_measures.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A PreparedValue holds the features that a SimilarityMeasure derives from a value before it compares the value, e.g.,
+ * the token ids for Jaccard, the ids of the MinHash signature for LSH or the TF-IDF vector for TfIdfCosine. A value
+ * that is prepared once can be compared many times without deriving its features again. Features that the preparing
+ * measure does not use are null. PreparedValues are created by SimilarityMeasure.prepare() and must only be compared
+ * by the measure that prepared them.
+ */
+@Getter
+@AllArgsConstructor
+public class PreparedValue {
+
+    // The value whose features are prepared.
+    private final String value;
+
+    // The sorted token ids of the value, e.g., of its q-grams or of its MinHash signature; null if the measure does not
+    // compare tokens.
+    private final int[] tokenIds;
+
+    // The weights of the token ids, e.g., their TF-IDF weights; null if the measure does not weight tokens.
+    private final float[] weights;
+
+    public PreparedValue(final String value) {
+        this(value, null, null);
+    }
+
+    public PreparedValue(final String value, final int[] tokenIds) {
+        this(value, tokenIds, null);
+    }
+}
@@ -0,0 +1,106 @@
+package de.di.similarity_measures.helper;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.Arrays;
+
+/**
+ * A TokenDictionary assigns dense int ids to tokens, so that token lists can be stored and compared as sorted int
+ * arrays. Tokens are either given as strings or as the long codes of a Tokenizer; each kind has its own id space. The
+ * dictionary remembers the token string of every id. All methods are thread-safe; the token strings are read without
+ * locking.
+ */
+public class TokenDictionary {
+
+    // The ids of the token codes.
+    private final Long2IntOpenHashMap codeIds = new Long2IntOpenHashMap();
+
+    // The ids of the token strings.
+    private final Object2IntOpenHashMap<String> stringIds = new Object2IntOpenHashMap<>();
+
+    // The token string of every id; the array is copied when it grows and republished after every new token, so that
+    // readers see all tokens up to the ids they know.
+    private volatile String[] tokens = new String[64];
+
+    // The number of assigned ids.
+    private int size = 0;
+
+    public TokenDictionary() {
+        this.codeIds.defaultReturnValue(-1);
+        this.stringIds.defaultReturnValue(-1);
+    }
+
+    /**
+     * Returns the id of the token with the given code, assigning a new id if the code is unknown.
+     * @param code The code of the token.
+     * @param token The token string with the given code.
+     * @return The id of the token.
+     */
+    public synchronized int idOf(long code, String token) {
+        int id = this.codeIds.putIfAbsent(code, this.size);
+        if (id != -1)
+            return id;
+        return this.add(token);
+    }
+
+    /**
+     * Returns the id of the token with the given code if the code is known.
+     * @param code The code of the token.
+     * @return The id of the token or -1 if the code is unknown.
+     */
+    public synchronized int lookup(long code) {
+        return this.codeIds.get(code);
+    }
+
+    /**
+     * Returns the id of the given token string, assigning a new id if the token is unknown.
+     * @param token The token string; may be null.
+     * @return The id of the token.
+     */
+    public synchronized int idOf(String token) {
+        int id = this.stringIds.putIfAbsent(token, this.size);
+        if (id != -1)
+            return id;
+        return this.add(token);
+    }
+
+    private int add(String token) {
+        String[] tokens = this.tokens;
+        if (this.size == tokens.length)
+            tokens = Arrays.copyOf(tokens, 2 * tokens.length);
+        tokens[this.size] = token;
+        this.tokens = tokens;
+        return this.size++;
+    }
+
+    /**
+     * Returns the ids of the given token strings, sorted ascending.
+     * @param tokens The token strings.
+     * @return The sorted ids of the tokens; repeated tokens appear repeatedly.
+     */
+    public synchronized int[] idsOf(String[] tokens) {
+        int[] ids = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++)
+            ids[i] = this.idOf(tokens[i]);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns the token string with the given id.
+     * @param id The id of the token.
+     * @return The token string.
+     */
+    public String tokenOf(int id) {
+        return this.tokens[id];
+    }
+
+    /**
+     * Returns the number of distinct tokens in this dictionary.
+     * @return The number of distinct tokens.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+}
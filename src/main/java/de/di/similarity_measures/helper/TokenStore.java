@@ -0,0 +1,153 @@
+package de.di.similarity_measures.helper;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A TokenStore tokenizes every distinct value only once: It maps each value to the sorted ids of its q-grams, where the
+ * ids come from a TokenDictionary that is shared by all values. There is one store per combination of token size and
+ * padding settings, which is shared by all tokenizers, measures and algorithms with these settings, so that the
+ * tokenization cost scales with the number of distinct values instead of with the number of comparisons. A store keeps
+ * at most CAPACITY values and evicts the least recently used values first, in segments with their own locks like
+ * CachedSimilarityMeasure; evicted values are tokenized again on demand and get the same ids, because the dictionary
+ * keeps its tokens. Use clear() to release all stores.
+ */
+public class TokenStore {
+
+    // The stores of all token size and padding settings.
+    private static final Map<String, TokenStore> STORES = new ConcurrentHashMap<>();
+
+    // The maximum number of values that a store keeps.
+    public static final int CAPACITY = 1 << 16;
+
+    // The number of segments of the values of a store.
+    private static final int NUM_SEGMENTS = 16;
+
+    // The tokenizer with the settings of this store.
+    private final Tokenizer tokenizer;
+
+    // The dictionary of the q-grams of all values of this store.
+    @Getter
+    private final TokenDictionary dictionary = new TokenDictionary();
+
+    // The sorted token ids of the recently used values of this store, split into LRU segments that are guarded by
+    // their own monitors.
+    private final LinkedHashMap<String, int[]>[] segments;
+
+    private TokenStore(int tokenSize, boolean usePadding) {
+        this(tokenSize, usePadding, CAPACITY);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TokenStore(int tokenSize, boolean usePadding, int capacity) {
+        this.tokenizer = new Tokenizer(tokenSize, usePadding);
+        int numSegments = Math.max(1, Math.min(NUM_SEGMENTS, capacity / 256));
+        this.segments = new LinkedHashMap[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            int segmentCapacity = capacity / numSegments + ((i < capacity % numSegments) ? 1 : 0);
+            this.segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                    return this.size() > segmentCapacity;
+                }
+            };
+        }
+    }
+
+    private LinkedHashMap<String, int[]> segmentOf(String value) {
+        int hash = value.hashCode();
+        hash ^= hash >>> 16;
+        return this.segments[(hash & 0x7FFFFFFF) % this.segments.length];
+    }
+
+    /**
+     * Returns the store of the given settings.
+     * @param tokenSize The size of the q-grams.
+     * @param usePadding The choice of whether the values are padded with the current Tokenizer.paddingSymbol.
+     * @return The shared store of the settings.
+     */
+    public static TokenStore of(int tokenSize, boolean usePadding) {
+        String key = tokenSize + (usePadding ? "|" + Tokenizer.paddingSymbol : "");
+        return STORES.computeIfAbsent(key, k -> new TokenStore(tokenSize, usePadding));
+    }
+
+    /**
+     * Releases the stores of all settings, i.e., all stored values and token dictionaries.
+     */
+    public static void clear() {
+        STORES.clear();
+    }
+
+    /**
+     * Returns the ids of the q-grams of the given value, tokenizing the value if it is not yet stored.
+     * @param value The value to be tokenized.
+     * @return The sorted ids of all q-grams of the value; the array is shared and must not be modified.
+     */
+    public int[] tokenIds(final String value) {
+        LinkedHashMap<String, int[]> segment = this.segmentOf(value);
+        int[] ids;
+        synchronized (segment) {
+            ids = segment.get(value);
+        }
+        if (ids == null) {
+            ids = this.tokenize(value);
+            synchronized (segment) {
+                int[] existing = segment.putIfAbsent(value, ids);
+                if (existing != null)
+                    ids = existing;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the q-grams of the given value as strings, which are taken from the dictionary instead of being cut out
+     * of the value again.
+     * @param value The value to be tokenized.
+     * @return The q-grams of the value in the order of their ids.
+     */
+    public String[] tokens(final String value) {
+        int[] ids = this.tokenIds(value);
+        String[] tokens = new String[ids.length];
+        for (int i = 0; i < ids.length; i++)
+            tokens[i] = this.dictionary.tokenOf(ids[i]);
+        return tokens;
+    }
+
+    /**
+     * Returns the number of distinct values in this store.
+     * @return The number of distinct values in this store; at most CAPACITY.
+     */
+    public int size() {
+        int size = 0;
+        for (LinkedHashMap<String, int[]> segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private int[] tokenize(final String value) {
+        long[] codes = this.tokenizer.tokenCodes(value);
+        int[] ids = new int[codes.length];
+        String[] tokens = null;
+        synchronized (this.dictionary) {
+            for (int i = 0; i < codes.length; i++) {
+                ids[i] = this.dictionary.lookup(codes[i]);
+                if (ids[i] < 0) {
+                    // The q-gram is new, so its string is created once for the dictionary
+                    if (tokens == null)
+                        tokens = this.tokenizer.tokenize(value);
+                    ids[i] = this.dictionary.idOf(codes[i], tokens[i]);
+                }
+            }
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+}
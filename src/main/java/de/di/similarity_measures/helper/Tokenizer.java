@@ -2,6 +2,8 @@ package de.di.similarity_measures.helper;
 
 import lombok.Getter;
 
+import java.util.Arrays;
+
 @Getter
 public class Tokenizer {
 
@@ -47,4 +49,95 @@ public class Tokenizer {
             tokens[i] = s.substring(i, i + this.tokenSize);
         return tokens;
     }
+
+    // The largest token size whose tokens can be packed losslessly into a long, i.e., with 16 bits per char.
+    public static final int MAX_PACKED_TOKEN_SIZE = 4;
+
+    /**
+     * Tokenizes the input string like tokenize(), but encodes every token as a long code that is read straight from the
+     * characters, so that no token strings are created. Tokens of up to MAX_PACKED_TOKEN_SIZE characters are packed
+     * losslessly, i.e., two tokens are equal if and only if their codes are equal; longer tokens are encoded by a 64-bit
+     * hash of their characters.
+     * @param string The string argument that should be tokenized.
+     * @return The codes of all tokens of the argument, sorted ascending; repeated tokens appear repeatedly.
+     */
+    public long[] tokenizeToCodes(final String string) {
+        long[] codes = this.tokenCodes(string);
+        Arrays.sort(codes);
+        return codes;
+    }
+
+    /**
+     * Tokenizes the input string into the ids of its tokens in the shared TokenStore of this tokenizer's settings. Recently
+     * used strings are not tokenized again; later calls return the stored ids.
+     * @param string The string argument that should be tokenized.
+     * @return The ids of all tokens of the argument, sorted ascending; the array is shared and must not be modified.
+     */
+    public int[] tokenizeToIds(final String string) {
+        return this.getTokenStore().tokenIds(string);
+    }
+
+    /**
+     * Returns the TokenStore that is shared by all tokenizers with the same token size and padding settings.
+     * @return The shared TokenStore of this tokenizer's settings.
+     */
+    public TokenStore getTokenStore() {
+        return TokenStore.of(this.tokenSize, this.usePadding);
+    }
+
+    // The base of the polynomial rolling hash of tokens that are longer than MAX_PACKED_TOKEN_SIZE; odd, so that it is invertible modulo 2^64.
+    private static final long HASH_BASE = 0x100000001B3L;
+
+    /**
+     * Encodes the tokens of the input string in the order of their positions; see tokenizeToCodes(). The codes are
+     * rolled over the characters, so that every character is read once independently of the token size: Packed codes
+     * shift the new character in and mask the oldest one out; hashed codes are a polynomial hash modulo 2^64, from
+     * which the oldest character is subtracted with its precomputed power of the base.
+     */
+    long[] tokenCodes(final String string) {
+        String padding = this.usePadding ? paddingSymbol.repeat(Math.max(0, this.tokenSize - 1)) : "";
+        int length = padding.length() + string.length() + padding.length();
+        if (length < this.tokenSize)
+            return new long[0];
+
+        char[] chars = new char[length];
+        padding.getChars(0, padding.length(), chars, 0);
+        string.getChars(0, string.length(), chars, padding.length());
+        padding.getChars(0, padding.length(), chars, padding.length() + string.length());
+
+        long[] codes = new long[length - (this.tokenSize - 1)];
+        if (this.tokenSize <= 0)
+            return codes;
+
+        if (this.tokenSize <= MAX_PACKED_TOKEN_SIZE) {
+            long mask = (this.tokenSize == 4) ? -1L : (1L << (16 * this.tokenSize)) - 1;
+            long code = 0L;
+            for (int j = 0; j < this.tokenSize - 1; j++)
+                code = (code << 16) | chars[j];
+            for (int i = 0; i < codes.length; i++) {
+                code = ((code << 16) | chars[i + this.tokenSize - 1]) & mask;
+                codes[i] = code;
+            }
+            return codes;
+        }
+
+        long outPower = 1L;
+        for (int j = 0; j < this.tokenSize - 1; j++)
+            outPower *= HASH_BASE;
+        long hash = 0L;
+        for (int j = 0; j < this.tokenSize - 1; j++)
+            hash = hash * HASH_BASE + chars[j];
+        for (int i = 0; i < codes.length; i++) {
+            hash = hash * HASH_BASE + chars[i + this.tokenSize - 1];
+            codes[i] = mix(hash);
+            hash -= chars[i] * outPower;
+        }
+        return codes;
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
 }
@@ -0,0 +1,140 @@
+package de.di.structures;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import lombok.Getter;
+
+/**
+ * A DictionaryColumn is a dictionary-encoded representation of one column of a Relation. Every distinct value of the
+ * column is stored exactly once in the dictionary and every record refers to its value via an int code, which is the
+ * index of the value in the dictionary. Codes are assigned in order of first occurrence, i.e., the value of the first
+ * record always receives code 0. Two records hold equal values if and only if they hold equal codes, so algorithms can
+ * hash, compare and group codes instead of strings.
+ */
+@Getter
+public class DictionaryColumn {
+
+    // The distinct values of the column; the position of a value is its code.
+    private final String[] dictionary;
+
+    // The value code of every record of the column.
+    private final int[] codes;
+
+    public DictionaryColumn(final String[] dictionary, final int[] codes) {
+        this.dictionary = dictionary;
+        this.codes = codes;
+    }
+
+    public DictionaryColumn(final String[] values) {
+        Object2IntOpenHashMap<String> valueToCode = new Object2IntOpenHashMap<>();
+        valueToCode.defaultReturnValue(-1);
+
+        this.codes = new int[values.length];
+        for (int recordIndex = 0; recordIndex < values.length; recordIndex++) {
+            int code = valueToCode.putIfAbsent(values[recordIndex], valueToCode.size());
+            this.codes[recordIndex] = (code == -1) ? valueToCode.size() - 1 : code;
+        }
+
+        this.dictionary = new String[valueToCode.size()];
+        for (Object2IntMap.Entry<String> entry : valueToCode.object2IntEntrySet())
+            this.dictionary[entry.getIntValue()] = entry.getKey();
+    }
+
+    /**
+     * Encodes a typed column by hashing the primitive keys of its values instead of their strings. Empty values receive
+     * their own code.
+     * @param column The typed column; must not be of type STRING.
+     * @param values The string values of the column, which provide the dictionary.
+     */
+    public DictionaryColumn(final TypedColumn column, final String[] values) {
+        Long2IntOpenHashMap keyToCode = new Long2IntOpenHashMap();
+        keyToCode.defaultReturnValue(-1);
+        int nullCode = -1;
+
+        IntArrayList firstOccurrences = new IntArrayList();
+        this.codes = new int[values.length];
+        for (int recordIndex = 0; recordIndex < values.length; recordIndex++) {
+            int code;
+            if (column.isNull(recordIndex)) {
+                if (nullCode == -1)
+                    nullCode = firstOccurrences.size();
+                code = nullCode;
+            } else {
+                code = keyToCode.putIfAbsent(column.keyOf(recordIndex), firstOccurrences.size());
+                if (code == -1)
+                    code = firstOccurrences.size();
+            }
+            if (code == firstOccurrences.size())
+                firstOccurrences.add(recordIndex);
+            this.codes[recordIndex] = code;
+        }
+
+        this.dictionary = new String[firstOccurrences.size()];
+        for (int code = 0; code < this.dictionary.length; code++)
+            this.dictionary[code] = values[firstOccurrences.getInt(code)];
+    }
+
+    /**
+     * Returns the number of records in this column.
+     * @return The number of records in this column.
+     */
+    public int size() {
+        return this.codes.length;
+    }
+
+    /**
+     * Returns the number of distinct values in this column.
+     * @return The number of distinct values in this column.
+     */
+    public int cardinality() {
+        return this.dictionary.length;
+    }
+
+    /**
+     * Returns the value of the record with the given index.
+     * @param recordIndex The index of the record whose value is requested.
+     * @return The (decoded) value of the record.
+     */
+    public String valueOf(int recordIndex) {
+        return this.dictionary[this.codes[recordIndex]];
+    }
+
+    /**
+     * Checks whether all values in this column are distinct.
+     * @return true if no two records of this column share the same value.
+     */
+    public boolean isUnique() {
+        return this.dictionary.length == this.codes.length;
+    }
+
+    /**
+     * Combines the given columns into a single dictionary-encoded column, whose codes are equal for two records if and
+     * only if the records agree on all given columns. The dictionary of the combined column is not materialized, i.e.,
+     * the result should only be used for grouping and uniqueness checks.
+     * @param columns The columns that should be combined; all columns must have the same size.
+     * @return The combined column with dense codes in order of first occurrence.
+     */
+    public static DictionaryColumn combine(final DictionaryColumn... columns) {
+        int[] combinedCodes = columns[0].getCodes().clone();
+        int combinedCardinality = columns[0].cardinality();
+
+        for (int c = 1; c < columns.length; c++) {
+            int[] codes = columns[c].getCodes();
+            long cardinality = columns[c].cardinality();
+
+            // Map each (combinedCode, code) pair to a new dense code
+            Long2IntOpenHashMap pairToCode = new Long2IntOpenHashMap();
+            pairToCode.defaultReturnValue(-1);
+            for (int recordIndex = 0; recordIndex < combinedCodes.length; recordIndex++) {
+                long pair = combinedCodes[recordIndex] * cardinality + codes[recordIndex];
+                int code = pairToCode.putIfAbsent(pair, pairToCode.size());
+                combinedCodes[recordIndex] = (code == -1) ? pairToCode.size() - 1 : code;
+            }
+            combinedCardinality = pairToCode.size();
+        }
+
+        return new DictionaryColumn(new String[combinedCardinality], combinedCodes);
+    }
+}
@@ -0,0 +1,315 @@
+package de.di.structures;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * A TypedColumn is a primitive representation of one column of a Relation whose values are all integers, decimals or
+ * dates. Integers are stored as long values, dates as long epoch days and decimals as double values with a fixed number
+ * of fraction digits; empty values are stored as nulls in a bitmap. A column is only typed if every value is written in
+ * the canonical form of its type, e.g., "42" but not "042" or "+42", and all decimals have the same number of fraction
+ * digits. Therefore, two values of a typed column are equal if and only if their strings are equal, and valueOf()
+ * reproduces the original strings exactly. Columns that do not qualify have the type STRING and hold no values.
+ */
+public class TypedColumn {
+
+    public enum Type {
+        STRING, INTEGER, DECIMAL, DATE
+    }
+
+    // The maximum number of digits of a decimal that can be stored in a double without changing its string.
+    private static final int MAX_DECIMAL_DIGITS = 15;
+
+    // The maximum number of digits of an integer that always fits into a long.
+    private static final int MAX_INTEGER_DIGITS = 18;
+
+    // The type of all values of this column.
+    @Getter
+    private final Type type;
+
+    // The number of records in this column.
+    private final int size;
+
+    // The values of INTEGER (as numbers) and DATE (as epoch days) columns; null for other types.
+    private final long[] longValues;
+
+    // The values of DECIMAL columns; null for other types.
+    private final double[] doubleValues;
+
+    // The number of fraction digits of all values of a DECIMAL column.
+    @Getter
+    private final int scale;
+
+    // The bitmap of empty values, where bit i is set if record i is empty; null if the column has no empty values.
+    private final long[] nulls;
+
+    private TypedColumn(Type type, int size, long[] longValues, double[] doubleValues, int scale, long[] nulls) {
+        this.type = type;
+        this.size = size;
+        this.longValues = longValues;
+        this.doubleValues = doubleValues;
+        this.scale = scale;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Infers the type of the given values and stores them in the according primitive form. Empty strings are stored as
+     * nulls; columns that contain only empty strings or any null reference have the type STRING.
+     * @param values The values of the column.
+     * @return The typed column.
+     */
+    public static TypedColumn of(String[] values) {
+        int first = 0;
+        while (first < values.length && values[first] != null && values[first].isEmpty())
+            first++;
+        if (first == values.length || values[first] == null)
+            return stringColumn(values.length);
+
+        String sample = values[first];
+        long[] scratch = new long[1];
+        Type type = parseInteger(sample, scratch, 0) ? Type.INTEGER : (decimalScale(sample) >= 0) ? Type.DECIMAL :
+                parseDate(sample, scratch, 0) ? Type.DATE : Type.STRING;
+        if (type == Type.STRING)
+            return stringColumn(values.length);
+
+        int scale = (type == Type.DECIMAL) ? decimalScale(sample) : 0;
+        long[] longValues = (type == Type.DECIMAL) ? null : new long[values.length];
+        double[] doubleValues = (type == Type.DECIMAL) ? new double[values.length] : null;
+        long[] nulls = null;
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            if (value == null)
+                return stringColumn(values.length);
+            if (value.isEmpty()) {
+                if (nulls == null)
+                    nulls = new long[(values.length + 63) >>> 6];
+                nulls[i >>> 6] |= 1L << i;
+                continue;
+            }
+            if (type == Type.INTEGER) {
+                if (!parseInteger(value, longValues, i))
+                    return stringColumn(values.length);
+            } else if (type == Type.DATE) {
+                if (!parseDate(value, longValues, i))
+                    return stringColumn(values.length);
+            } else {
+                if (decimalScale(value) != scale)
+                    return stringColumn(values.length);
+                doubleValues[i] = Double.parseDouble(value);
+            }
+        }
+        return new TypedColumn(type, values.length, longValues, doubleValues, scale, nulls);
+    }
+
+    private static TypedColumn stringColumn(int size) {
+        return new TypedColumn(Type.STRING, size, null, null, 0, null);
+    }
+
+    /**
+     * Parses a canonical integer, i.e., an optional minus sign followed by digits without leading zeros, into
+     * target[index].
+     * @return false if the value is not a canonical integer.
+     */
+    private static boolean parseInteger(String value, long[] target, int index) {
+        int start = (value.charAt(0) == '-') ? 1 : 0;
+        int length = value.length() - start;
+        if (length == 0 || length > MAX_INTEGER_DIGITS || (length > 1 && value.charAt(start) == '0'))
+            return false;
+        long number = 0;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+            number = 10 * number + (c - '0');
+        }
+        if (start == 1 && number == 0)
+            return false; // "-0"
+        target[index] = (start == 1) ? -number : number;
+        return true;
+    }
+
+    /**
+     * Checks whether the value is a canonical decimal, i.e., an optional minus sign, an integer part without leading
+     * zeros, a dot and at least one fraction digit, with at most MAX_DECIMAL_DIGITS digits in total.
+     * @return The number of fraction digits or -1 if the value is not a canonical decimal.
+     */
+    private static int decimalScale(String value) {
+        int start = (value.charAt(0) == '-') ? 1 : 0;
+        int dot = value.indexOf('.');
+        if (dot <= start || dot == value.length() - 1 || value.length() - start - 1 > MAX_DECIMAL_DIGITS)
+            return -1;
+        if (dot - start > 1 && value.charAt(start) == '0')
+            return -1;
+        boolean zero = true;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (i == dot)
+                continue;
+            if (c < '0' || c > '9')
+                return -1;
+            zero &= c == '0';
+        }
+        if (start == 1 && zero)
+            return -1; // "-0.0"
+        return value.length() - dot - 1;
+    }
+
+    /**
+     * Parses a date in the ISO format yyyy-MM-dd into its epoch day at target[index].
+     * @return false if the value is not a valid ISO date.
+     */
+    private static boolean parseDate(String value, long[] target, int index) {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-')
+            return false;
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31)
+            return false;
+        try {
+            target[index] = LocalDate.of(year, month, day).toEpochDay();
+            return true;
+        } catch (DateTimeException e) {
+            return false; // e.g. February 30
+        }
+    }
+
+    private static int digits(String value, int from, int to) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            number = 10 * number + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Returns the number of records in this column.
+     * @return The number of records in this column.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks whether the values of this column are stored in primitive form.
+     * @return true if the column is of type INTEGER, DECIMAL or DATE.
+     */
+    public boolean isTyped() {
+        return this.type != Type.STRING;
+    }
+
+    /**
+     * Checks whether the values of this column can be compared with the values of the given column by their primitive
+     * representations, i.e., whether both columns have the same type and scale.
+     * @param other The other column.
+     * @return true if equal primitive values mean equal strings across both columns.
+     */
+    public boolean isComparableTo(TypedColumn other) {
+        return this.isTyped() && this.type == other.type && this.scale == other.scale;
+    }
+
+    /**
+     * Checks whether the value of the given record is empty.
+     * @param recordIndex The index of the record.
+     * @return true if the value of the record is empty.
+     */
+    public boolean isNull(int recordIndex) {
+        this.checkTyped();
+        return this.nulls != null && (this.nulls[recordIndex >>> 6] & (1L << recordIndex)) != 0;
+    }
+
+    /**
+     * Returns the value of the given record of an INTEGER column or the epoch day of the given record of a DATE column.
+     * @param recordIndex The index of the record.
+     * @return The value of the record; 0 if the value is empty.
+     */
+    public long getLong(int recordIndex) {
+        if (this.longValues == null)
+            throw new IllegalStateException("Column of type " + this.type + " has no long values.");
+        return this.longValues[recordIndex];
+    }
+
+    /**
+     * Returns the numeric value of the given record of an INTEGER or DECIMAL column.
+     * @param recordIndex The index of the record.
+     * @return The value of the record; 0 if the value is empty.
+     */
+    public double getDouble(int recordIndex) {
+        if (this.type == Type.INTEGER)
+            return this.longValues[recordIndex];
+        if (this.doubleValues == null)
+            throw new IllegalStateException("Column of type " + this.type + " has no numeric values.");
+        return this.doubleValues[recordIndex];
+    }
+
+    /**
+     * Returns the date of the given record of a DATE column.
+     * @param recordIndex The index of the record.
+     * @return The date of the record or null if the value is empty.
+     */
+    public LocalDate getDate(int recordIndex) {
+        if (this.type != Type.DATE)
+            throw new IllegalStateException("Column of type " + this.type + " has no date values.");
+        return this.isNull(recordIndex) ? null : LocalDate.ofEpochDay(this.longValues[recordIndex]);
+    }
+
+    /**
+     * Returns a long key for the value of the given record that is equal for two records of this column if and only if
+     * their values are equal; empty values must be checked separately with isNull().
+     * @param recordIndex The index of the record.
+     * @return The key of the value of the record.
+     */
+    public long keyOf(int recordIndex) {
+        this.checkTyped();
+        if (this.type == Type.DECIMAL)
+            return Double.doubleToLongBits(this.doubleValues[recordIndex] + 0.0);
+        return this.longValues[recordIndex];
+    }
+
+    /**
+     * Renders the value of the given record in the exact form it was read in.
+     * @param recordIndex The index of the record.
+     * @return The value of the record as string; the empty string if the value is empty.
+     */
+    public String valueOf(int recordIndex) {
+        if (this.isNull(recordIndex))
+            return "";
+        switch (this.type) {
+            case INTEGER:
+                return Long.toString(this.longValues[recordIndex]);
+            case DATE:
+                return LocalDate.ofEpochDay(this.longValues[recordIndex]).toString();
+            default:
+                return BigDecimal.valueOf(this.doubleValues[recordIndex]).setScale(this.scale).toPlainString();
+        }
+    }
+
+    /**
+     * Compares the values of two records by their natural order, i.e., numerically or chronologically; empty values
+     * are ordered first, as empty strings are in the lexicographical order.
+     * @param recordIndex1 The index of the first record.
+     * @param recordIndex2 The index of the second record.
+     * @return A negative number, zero or a positive number if the first value is smaller than, equal to or greater
+     * than the second value.
+     */
+    public int compare(int recordIndex1, int recordIndex2) {
+        boolean null1 = this.isNull(recordIndex1);
+        boolean null2 = this.isNull(recordIndex2);
+        if (null1 || null2)
+            return Boolean.compare(!null1, !null2);
+        if (this.type == Type.DECIMAL)
+            return Double.compare(this.doubleValues[recordIndex1], this.doubleValues[recordIndex2]);
+        return Long.compare(this.longValues[recordIndex1], this.longValues[recordIndex2]);
+    }
+
+    private void checkTyped() {
+        if (this.type == Type.STRING)
+            throw new IllegalStateException("Column of type STRING has no primitive values.");
+    }
+}
@@ -0,0 +1,162 @@
+package de.di;
+
+import de.di.helper.CsvLineParser;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class RelationTest {
+
+    @Test
+    public void testColumnsCorrectness() {
+        Relation relation = new Relation("R", new String[]{"A", "B"}, new String[][]{{"a1", "b1"}, {"a2", "b2"}, {"a3", "b1"}});
+
+        String[][] columns = relation.getColumns();
+        assertArrayEquals(new String[][]{{"a1", "a2", "a3"}, {"b1", "b2", "b1"}}, columns);
+        assertSame(columns, relation.getColumns());
+
+        relation.releaseColumns();
+        assertNotSame(columns, relation.getColumns());
+        assertArrayEquals(columns, relation.getColumns());
+    }
+
+    @Test
+    public void testEncodedColumnsCorrectness() {
+        Relation relation = new Relation("data" + File.separator + "data_profiling" + File.separator + "tpch_nation.csv");
+
+        String[][] columns = relation.getColumns();
+        assertEquals(columns.length, relation.getEncodedColumns().length);
+        for (int i = 0; i < columns.length; i++)
+            for (int j = 0; j < columns[i].length; j++)
+                assertEquals(columns[i][j], relation.getEncodedColumns()[i].valueOf(j));
+        assertSame(relation.getEncodedColumns(), relation.getEncodedColumns());
+    }
+
+    @Test
+    public void testEncodedStorage() {
+        Path filePath = Path.of("data", "data_profiling", "tpch_nation.csv");
+        Relation relation = new Relation(filePath, true, ';', StandardCharsets.UTF_8);
+        String[][] rows = new Relation("R", relation.getAttributes(), relation.getRecords()).getRecords();
+
+        // Records are decoded from the encoded columns and share their dictionary values
+        assertEquals(rows.length, relation.getNumRecords());
+        for (int j = 0; j < rows.length; j++) {
+            assertArrayEquals(rows[j], relation.getRecord(j));
+            for (int i = 0; i < rows[j].length; i++)
+                assertSame(relation.getEncodedColumns()[i].valueOf(j), relation.getRecords()[j][i]);
+        }
+        String[][] records = relation.getRecords();
+        relation.releaseColumns();
+        assertNotSame(records, relation.getRecords());
+        assertArrayEquals(records, relation.getRecords());
+    }
+
+    @Test
+    public void testReadAllRelationsInParallel() {
+        String folderPath = "data" + File.separator + "data_profiling";
+        List<Relation> sequential = Relation.readAllRelationsIn(folderPath, true, ';', StandardCharsets.UTF_8, 1);
+        List<Relation> parallel = Relation.readAllRelationsIn(folderPath, true, ';', StandardCharsets.UTF_8, 4);
+
+        assertEquals(5, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getName(), parallel.get(i).getName());
+            assertArrayEquals(sequential.get(i).getRecords(), parallel.get(i).getRecords());
+        }
+        assertEquals("abcde", parallel.get(0).getName());
+        assertEquals("tpch_supplier", parallel.get(4).getName());
+    }
+
+    private static void assertSameAsProjectedFullLoad(Path filePath, boolean hasHeader, Charset charset, int[] projection) {
+        Relation full = new Relation(filePath, hasHeader, ';', charset);
+        Relation projected = new Relation(filePath, hasHeader, ';', charset, projection);
+
+        String[] expectedAttributes = hasHeader ? CsvLineParser.project(full.getAttributes(), projection) : new String[projection.length];
+        if (!hasHeader)
+            for (int i = 0; i < projection.length; i++)
+                expectedAttributes[i] = String.valueOf(projection[i]);
+        assertArrayEquals(expectedAttributes, projected.getAttributes());
+        assertEquals(full.getRecords().length, projected.getRecords().length);
+        for (int i = 0; i < full.getRecords().length; i++) {
+            // Fields that are missing in a record are read as empty strings
+            String[] expected = CsvLineParser.project(full.getRecords()[i], projection);
+            for (int j = 0; j < expected.length; j++)
+                if (expected[j] == null)
+                    expected[j] = "";
+            assertArrayEquals(expected, projected.getRecords()[i]);
+        }
+    }
+
+    @Test
+    public void testProjectionCorrectness() throws Exception {
+        Path filePath = Path.of("data", "data_profiling", "tpch_supplier.csv");
+        assertSameAsProjectedFullLoad(filePath, true, StandardCharsets.UTF_8, new int[]{3, 0});
+        assertSameAsProjectedFullLoad(filePath, false, StandardCharsets.UTF_8, new int[]{6, 1, 2});
+
+        Relation full = new Relation(filePath, true, ';', StandardCharsets.UTF_8);
+        String[] attributes = {full.getAttributes()[4], full.getAttributes()[1]};
+        Relation projected = new Relation(filePath, ';', StandardCharsets.UTF_8, attributes);
+        assertArrayEquals(attributes, projected.getAttributes());
+        for (int i = 0; i < full.getRecords().length; i++)
+            assertArrayEquals(CsvLineParser.project(full.getRecords()[i], new int[]{4, 1}), projected.getRecords()[i]);
+
+        // Charsets that cannot be split on raw bytes are read with opencsv and projected after parsing
+        Path utf16Path = Files.createTempFile("projection", ".csv");
+        try {
+            Files.writeString(utf16Path, "A;B;C\na1;\"b;1\";c1\na2;b2\n;;c3\n", StandardCharsets.UTF_16LE);
+            assertSameAsProjectedFullLoad(utf16Path, true, StandardCharsets.UTF_16LE, new int[]{2, 1});
+            assertArrayEquals(new String[]{"c1", "b;1"}, new Relation(utf16Path, true, ';', StandardCharsets.UTF_16LE, new int[]{2, 1}).getRecords()[0]);
+            assertArrayEquals(new String[]{"", "b2"}, new Relation(utf16Path, true, ';', StandardCharsets.UTF_16LE, new int[]{2, 1}).getRecords()[1]);
+        } finally {
+            Files.delete(utf16Path);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProjectionUnknownAttribute() {
+        new Relation(Path.of("data", "data_profiling", "tpch_nation.csv"), ';', StandardCharsets.UTF_8, new String[]{"unknown"});
+    }
+
+    @Test
+    public void testCompressedInputCorrectness() throws Exception {
+        Path folder = Files.createTempDirectory("compressed");
+        try {
+            Path filePath = Path.of("data", "data_profiling", "tpch_supplier.csv");
+            Path gzipPath = folder.resolve("tpch_supplier.csv.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipPath))) {
+                Files.copy(filePath, out);
+            }
+
+            Relation expected = new Relation(filePath, true, ';', StandardCharsets.UTF_8);
+            Relation actual = new Relation(gzipPath, true, ';', StandardCharsets.UTF_8);
+            assertEquals(expected.getName(), actual.getName());
+            assertArrayEquals(expected.getAttributes(), actual.getAttributes());
+            assertArrayEquals(expected.getRecords(), actual.getRecords());
+
+            Relation projected = new Relation(gzipPath, ';', StandardCharsets.UTF_8, new String[]{expected.getAttributes()[2]});
+            for (int i = 0; i < expected.getRecords().length; i++)
+                assertArrayEquals(new String[]{expected.getRecords()[i][2]}, projected.getRecords()[i]);
+
+            List<Relation> relations = Relation.readAllRelationsIn(folder.toString(), true, ';', StandardCharsets.UTF_8);
+            assertEquals(1, relations.size());
+            assertArrayEquals(expected.getRecords(), relations.get(0).getRecords());
+        } finally {
+            try (Stream<Path> paths = Files.walk(folder)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                    Files.delete(path);
+            }
+        }
+    }
+}
@@ -2,7 +2,11 @@ package de.di.duplicate_detection;
 
 import de.di.duplicate_detection.structures.AttrSimWeight;
 import de.di.similarity_measures.Jaccard;
+import de.di.Relation;
+import de.di.similarity_measures.JaroWinkler;
 import de.di.similarity_measures.Levenshtein;
+import de.di.similarity_measures.LocalitySensitiveHashing;
+import de.di.similarity_measures.helper.PreparedValue;
 import de.di.similarity_measures.helper.Tokenizer;
 import org.junit.Test;
 
@@ -85,4 +89,49 @@ public class RecordComparatorTest {
         double similarity = recordComparator.compare(this.tuple1, this.tuple2);
         assertEquals(0.6485968992248062, similarity, 0.0000000001);
     }
+
+    @Test
+    public void testCorrectnessBounded() {
+        List<AttrSimWeight> attrSimWeights = new ArrayList<>(5);
+        attrSimWeights.add(new AttrSimWeight(0, new Levenshtein(true), 1.0/5));
+        attrSimWeights.add(new AttrSimWeight(1, new Jaccard(new Tokenizer(2, false), false), 1.0/5));
+        attrSimWeights.add(new AttrSimWeight(2, new Levenshtein(false), 1.0/5));
+        attrSimWeights.add(new AttrSimWeight(3, new Jaccard(new Tokenizer(3, true), false), 1.0/5));
+        attrSimWeights.add(new AttrSimWeight(4, new Levenshtein(true), 1.0/5));
+
+        for (double threshold : new double[]{0.0, 0.3, 0.5070271317829458, 0.52, 0.9, 1.0}) {
+            RecordComparator recordComparator = new RecordComparator(attrSimWeights, threshold);
+            double exact = recordComparator.compare(this.tuple1, this.tuple2);
+            double bounded = recordComparator.compareBounded(this.tuple1, this.tuple2);
+            assertEquals(recordComparator.isDuplicate(exact), recordComparator.isDuplicate(bounded));
+            if (recordComparator.isDuplicate(exact))
+                assertEquals(exact, bounded, 0.0);
+            assertEquals(recordComparator.compare(this.tuple1, this.tuple1), recordComparator.compareBounded(this.tuple1, this.tuple1), 0.0);
+        }
+    }
+
+    @Test
+    public void testCorrectnessPrepared() {
+        List<AttrSimWeight> attrSimWeights = new ArrayList<>(6);
+        attrSimWeights.add(new AttrSimWeight(0, new Levenshtein(true), 0.3));
+        attrSimWeights.add(new AttrSimWeight(1, new Jaccard(new Tokenizer(2, false), false), 0.1));
+        attrSimWeights.add(new AttrSimWeight(2, new Levenshtein(false), 0.1));
+        attrSimWeights.add(new AttrSimWeight(3, new LocalitySensitiveHashing(new Tokenizer(3, true), false, 2), 0.1));
+        attrSimWeights.add(new AttrSimWeight(3, new JaroWinkler(), 0.2));
+        attrSimWeights.add(new AttrSimWeight(4, new Jaccard(new Tokenizer(3, true), true), 0.2));
+
+        Relation relation = new Relation("courses", new String[]{"title", "language", "credits", "university", "topics"}, new String[][]{this.tuple1, this.tuple2});
+        for (double threshold : new double[]{0.0, 0.3, 0.5, 0.9, 1.0}) {
+            RecordComparator recordComparator = new RecordComparator(attrSimWeights, threshold);
+            PreparedValue[][] preparedRecords = recordComparator.prepare(relation);
+            assertEquals(recordComparator.compare(this.tuple1, this.tuple2), recordComparator.compare(preparedRecords[0], preparedRecords[1]), 0.0);
+            assertEquals(recordComparator.compare(this.tuple1, this.tuple1), recordComparator.compare(preparedRecords[0], preparedRecords[0]), 0.0);
+
+            double exact = recordComparator.compare(this.tuple1, this.tuple2);
+            double bounded = recordComparator.compareBounded(preparedRecords[0], preparedRecords[1]);
+            assertEquals(recordComparator.isDuplicate(exact), recordComparator.isDuplicate(bounded));
+            if (recordComparator.isDuplicate(exact))
+                assertEquals(exact, bounded, 0.0);
+        }
+    }
 }
@@ -5,6 +5,7 @@ import de.di.duplicate_detection.structures.AttrSimWeight;
 import de.di.duplicate_detection.structures.Duplicate;
 import de.di.similarity_measures.Jaccard;
 import de.di.similarity_measures.Levenshtein;
+import de.di.similarity_measures.LocalitySensitiveHashingIndex;
 import de.di.similarity_measures.helper.Tokenizer;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
@@ -17,6 +18,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SortedNeighborhoodTest {
 
@@ -46,6 +48,40 @@ public class SortedNeighborhoodTest {
         assertEquals(40, duplicatesDetected.size());
     }
 
+    @Test
+    public void testCorrectnessLocalitySensitiveHashing() {
+        Relation people = new Relation("people", new String[]{"name", "city"}, new String[][]{
+                {"Thorsten Papenbrock", "Marburg"},
+                {"Felix Naumann", "Potsdam"},
+                {"Thorsten Papenbrok", "Marburg"},
+                {"Ada Lovelace", "London"},
+                {"Felix Naumann", "Potsdam"},
+                {"Alan Turing", "Manchester"}});
+
+        List<AttrSimWeight> attrSimWeights = new ArrayList<>(2);
+        attrSimWeights.add(new AttrSimWeight(0, new Levenshtein(true), 0.7));
+        attrSimWeights.add(new AttrSimWeight(1, new Levenshtein(false), 0.3));
+        RecordComparator recordComparator = new RecordComparator(attrSimWeights, 0.9);
+
+        SortedNeighborhood snm = new SortedNeighborhood();
+        LocalitySensitiveHashingIndex index = new LocalitySensitiveHashingIndex(new Tokenizer(2, true), 32, 2, 42);
+        Set<Duplicate> duplicatesDetected = snm.detectDuplicates(people, new int[]{0, 1}, index, recordComparator);
+        assertEquals(2, duplicatesDetected.size());
+        for (Duplicate duplicate : duplicatesDetected)
+            assertTrue((duplicate.getIndex1() == 0 && duplicate.getIndex2() == 2) || (duplicate.getIndex1() == 1 && duplicate.getIndex2() == 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLocalitySensitiveHashingNonEmptyIndex() {
+        Relation people = new Relation("people", new String[]{"name"}, new String[][]{{"Ada"}, {"Alan"}});
+        List<AttrSimWeight> attrSimWeights = new ArrayList<>(1);
+        attrSimWeights.add(new AttrSimWeight(0, new Levenshtein(), 1.0));
+
+        LocalitySensitiveHashingIndex index = new LocalitySensitiveHashingIndex(new Tokenizer(2, true), 16, 2);
+        index.add("Grace");
+        new SortedNeighborhood().detectDuplicates(people, new int[]{0}, index, new RecordComparator(attrSimWeights, 0.9));
+    }
+
     private List<Duplicate> parseCDGoldstandard(Relation cdGold, Relation cd) {
         List<Duplicate> duplicatesGold = new ArrayList<>(cdGold.getRecords().length);
         for (String[] record : cdGold.getRecords()) {
@@ -0,0 +1,82 @@
+package de.di.helper;
+
+import de.di.Relation;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class CsvRecordCursorTest {
+
+    private static void assertSameAsRelation(Path filePath, boolean hasHeader, char separator, Charset charset) throws Exception {
+        Relation relation = new Relation(filePath, hasHeader, separator, charset);
+        try (CsvRecordCursor cursor = new CsvRecordCursor(filePath, hasHeader, separator, charset)) {
+            assertArrayEquals(relation.getAttributes(), cursor.getAttributes());
+
+            List<String[]> records = new ArrayList<>();
+            String[] record;
+            while ((record = cursor.next()) != null)
+                records.add(record.clone());
+            assertArrayEquals(filePath.toString(), relation.getRecords(), records.toArray(new String[0][]));
+        }
+    }
+
+    @Test
+    public void testCorrectnessDataFiles() throws Exception {
+        try (Stream<Path> paths = Files.walk(Path.of("data"))) {
+            for (Path filePath : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                char separator = filePath.toString().contains("schema_matching") ? ',' : ';';
+                assertSameAsRelation(filePath, true, separator, StandardCharsets.UTF_8);
+                assertSameAsRelation(filePath, false, separator, StandardCharsets.ISO_8859_1);
+            }
+        }
+    }
+
+    @Test
+    public void testCorrectnessLongInput() throws Exception {
+        Random random = new Random(7);
+        StringBuilder builder = new StringBuilder("a;b;c\r\n");
+        for (int i = 0; i < 20000; i++) {
+            builder.append(i).append(";\"x").append(random.nextInt(1000)).append(random.nextBoolean() ? "\r\ny" : "\"\"y").append("\";");
+            if (i % 1000 == 0)
+                builder.append("long".repeat(20000));
+            builder.append(random.nextBoolean() ? "\n" : "\r");
+        }
+        Path filePath = Files.createTempFile("csv_record_cursor_test", ".csv");
+        filePath.toFile().deleteOnExit();
+        Files.writeString(filePath, builder.toString());
+
+        assertSameAsRelation(filePath, true, ';', StandardCharsets.UTF_8);
+        assertSameAsRelation(filePath, false, ';', StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        Path filePath = Path.of("data", "data_profiling", "tpch_supplier.csv");
+        Relation relation = new Relation(filePath.toString());
+        try (CsvRecordCursor cursor = new CsvRecordCursor(filePath, true, ';', StandardCharsets.UTF_8)) {
+            assertEquals(relation.getRecords().length, cursor.stream().count());
+        }
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        Path filePath = Path.of("data", "data_profiling", "tpch_supplier.csv");
+        Relation relation = new Relation(filePath, true, ';', StandardCharsets.UTF_8, new int[]{5, 2});
+        try (CsvRecordCursor cursor = new CsvRecordCursor(filePath, ';', StandardCharsets.UTF_8, relation.getAttributes())) {
+            assertArrayEquals(relation.getAttributes(), cursor.getAttributes());
+            for (String[] record : relation.getRecords())
+                assertArrayEquals(record, cursor.next());
+            assertNull(cursor.next());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package de.di.helper;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.enums.CSVReaderNullFieldIndicator;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MappedCsvReaderTest {
+
+    private static String[][] readWithOpenCsv(Path filePath, char separator, Charset charset) throws Exception {
+        CSVReader reader = new CSVReaderBuilder(Files.newBufferedReader(filePath, charset))
+                .withCSVParser(new CSVParserBuilder()
+                        .withSeparator(separator)
+                        .withQuoteChar('"')
+                        .withEscapeChar('\\')
+                        .withStrictQuotes(false)
+                        .withIgnoreLeadingWhiteSpace(false)
+                        .withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS)
+                        .build())
+                .build();
+        List<String[]> records = new ArrayList<>();
+        String[] record;
+        while ((record = reader.readNext()) != null) {
+            for (int i = 0; i < record.length; i++)
+                if (record[i] == null)
+                    record[i] = "";
+            records.add(record);
+        }
+        reader.close();
+        return records.toArray(new String[0][]);
+    }
+
+    private static void assertSameAsOpenCsv(Path filePath, char separator, Charset charset) throws Exception {
+        String[][] expected;
+        try {
+            expected = readWithOpenCsv(filePath, separator, charset);
+        } catch (Exception e) {
+            // Input that opencsv rejects must be rejected as well
+            try {
+                new MappedCsvReader(separator, charset, 1).read(filePath, false);
+                fail("Expected an IOException for " + filePath);
+            } catch (IOException ignored) {
+            }
+            return;
+        }
+        for (int parallelism : new int[]{1, 4}) {
+            MappedCsvReader.Content content = new MappedCsvReader(separator, charset, parallelism).read(filePath, false);
+            assertNull(content.getHeader());
+            assertArrayEquals(filePath.toString(), expected, content.getRecords());
+        }
+    }
+
+    private static Path write(String content, Charset charset) throws Exception {
+        Path filePath = Files.createTempFile("mapped_csv_reader_test", ".csv");
+        filePath.toFile().deleteOnExit();
+        Files.write(filePath, content.getBytes(charset));
+        return filePath;
+    }
+
+    @Test
+    public void testCorrectnessDataFiles() throws Exception {
+        try (Stream<Path> paths = Files.walk(Path.of("data"))) {
+            for (Path filePath : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                char separator = filePath.toString().contains("schema_matching") ? ',' : ';';
+                assertSameAsOpenCsv(filePath, separator, StandardCharsets.UTF_8);
+                assertSameAsOpenCsv(filePath, separator, StandardCharsets.ISO_8859_1);
+            }
+        }
+    }
+
+    @Test
+    public void testCorrectnessQuotesAndEscapes() throws Exception {
+        String[] contents = new String[]{
+                "a\\;b;c\n1;2;3\n",
+                "a\\;b;c\r\n1;;3\r\n;;\r\n",
+                "a;b\r1;2\r\r3;4",
+                "\"a;b\";\"c\"\"d\";e\n\"multi\nline\";\"x\r\ny\";z\n",
+                "a\\;b;c\\\\d;e\\\"f;g\\h\n\"i\\\"j\";k\n",
+                "abc\"def\"ghi;a\"b;\"\";x\"\"y;\"q\"r\n",
+                "abc\"def\"ghi;ab;\"\";xy;\"q\"r\n",
+                "\"\n\";\"\n\n\"\n\"a\"\"\nb\"\n",
+                "Müller;Straße;\"Zoë\"\nÅ;\"é\nè\";ü\n",
+                "\n\n;\n"
+        };
+        for (String content : contents) {
+            assertSameAsOpenCsv(write(content, StandardCharsets.UTF_8), ';', StandardCharsets.UTF_8);
+            assertSameAsOpenCsv(write(content, StandardCharsets.ISO_8859_1), ';', StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    @Test
+    public void testCorrectnessParallel() throws Exception {
+        Random random = new Random(42);
+        String alphabet = "ab;\"\\\n c";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            builder.append('"').append(i).append('"');
+            for (int j = 0; j < 3; j++) {
+                builder.append(';');
+                if (random.nextBoolean()) {
+                    builder.append('"');
+                    for (int k = random.nextInt(6); k > 0; k--) {
+                        char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                        builder.append(c == '"' ? "\"\"" : c == '\\' ? "\\\\" : String.valueOf(c));
+                    }
+                    builder.append('"');
+                } else {
+                    builder.append("v").append(random.nextInt(100));
+                }
+            }
+            builder.append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        assertSameAsOpenCsv(write(builder.toString(), StandardCharsets.UTF_8), ';', StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testHeader() throws Exception {
+        Path filePath = Path.of("data" + File.separator + "data_profiling" + File.separator + "tpch_nation.csv");
+        String[][] expected = readWithOpenCsv(filePath, ';', StandardCharsets.UTF_8);
+
+        MappedCsvReader.Content content = new MappedCsvReader(';', StandardCharsets.UTF_8, 2).read(filePath, true);
+        assertArrayEquals(expected[0], content.getHeader());
+        assertEquals(expected.length - 1, content.getRecords().length);
+        assertArrayEquals(expected[expected.length - 1], content.getRecords()[content.getRecords().length - 1]);
+
+        content = new MappedCsvReader(';', StandardCharsets.UTF_8, 2).read(write("", StandardCharsets.UTF_8), true);
+        assertNull(content.getHeader());
+        assertEquals(0, content.getRecords().length);
+    }
+}
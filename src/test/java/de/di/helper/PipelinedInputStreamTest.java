@@ -0,0 +1,96 @@
+package de.di.helper;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PipelinedInputStreamTest {
+
+    @Test
+    public void testCorrectness() throws Exception {
+        byte[] bytes = new byte[100000];
+        new Random(42).nextBytes(bytes);
+
+        // Small chunks and a small capacity force the producer to block and recycle its buffers many times
+        try (InputStream in = new PipelinedInputStream(new ByteArrayInputStream(bytes), "test", 1000, 2)) {
+            assertArrayEquals(bytes, in.readAllBytes());
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void testFailurePropagation() throws Exception {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("broken");
+            }
+        };
+        byte[] bytes = {1, 2, 3};
+        try (InputStream in = new PipelinedInputStream(new SequenceInputStream(new ByteArrayInputStream(bytes), failing), "test", 2, 2)) {
+            assertEquals(1, in.read());
+            assertEquals(2, in.read());
+            assertEquals(3, in.read());
+            in.read();
+            fail("The failure of the source should have been rethrown.");
+        } catch (IOException e) {
+            assertEquals("broken", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testUncheckedFailurePropagation() throws Exception {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("broken codec");
+            }
+        };
+        try (InputStream in = new PipelinedInputStream(failing, "test", 2, 2)) {
+            in.read();
+            fail("The failure of the source should have been rethrown.");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCloseWakesUpReader() throws Exception {
+        // A source that never delivers a byte keeps the reader waiting until the stream is closed
+        InputStream blocking = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return -1;
+            }
+        };
+        PipelinedInputStream in = new PipelinedInputStream(blocking, "test", 2, 2);
+        Thread closer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            in.close();
+        });
+        closer.start();
+        try {
+            in.read();
+            fail("Reading a closed stream should fail.");
+        } catch (IOException e) {
+            assertEquals("The stream is closed.", e.getMessage());
+        }
+        closer.join();
+    }
+}
@@ -0,0 +1,100 @@
+package de.di.helper;
+
+import de.di.Relation;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RelationSnapshotTest {
+
+    private static Path copyToTempFolder(Path filePath) throws Exception {
+        Path folder = Files.createTempDirectory("relation_snapshot_test");
+        folder.toFile().deleteOnExit();
+        Path copy = folder.resolve(filePath.getFileName());
+        Files.copy(filePath, copy, StandardCopyOption.COPY_ATTRIBUTES);
+        copy.toFile().deleteOnExit();
+        RelationSnapshot.snapshotPathFor(copy).toFile().deleteOnExit();
+        return copy;
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        Path filePath = copyToTempFolder(Path.of("data", "data_profiling", "tpch_supplier.csv"));
+        Relation relation = new Relation(filePath, true, ';', StandardCharsets.UTF_8);
+
+        assertNull(RelationSnapshot.read(filePath, true, ';', StandardCharsets.UTF_8));
+        assertTrue(relation.writeSnapshot(filePath, true, ';', StandardCharsets.UTF_8));
+
+        Relation snapshot = RelationSnapshot.read(filePath, true, ';', StandardCharsets.UTF_8);
+        assertNotNull(snapshot);
+        assertEquals(relation.getName(), snapshot.getName());
+        assertArrayEquals(relation.getAttributes(), snapshot.getAttributes());
+        assertArrayEquals(relation.getRecords(), snapshot.getRecords());
+        assertArrayEquals(relation.getEncodedColumns()[1].getCodes(), snapshot.getEncodedColumns()[1].getCodes());
+
+        // Snapshots for other parse options are not used
+        assertNull(RelationSnapshot.read(filePath, false, ';', StandardCharsets.UTF_8));
+        assertNull(RelationSnapshot.read(filePath, true, ',', StandardCharsets.UTF_8));
+        assertNull(RelationSnapshot.read(filePath, true, ';', StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testReadAllRelationsIn() throws Exception {
+        Path filePath = copyToTempFolder(Path.of("data", "data_profiling", "tpch_nation.csv"));
+        Relation relation = new Relation(filePath, true, ';', StandardCharsets.UTF_8);
+        assertTrue(relation.writeSnapshot(filePath, true, ';', StandardCharsets.UTF_8));
+
+        List<Relation> relations = Relation.readAllRelationsIn(filePath.getParent().toString(), true, ';', StandardCharsets.UTF_8);
+        assertEquals(1, relations.size());
+        assertArrayEquals(relation.getRecords(), relations.get(0).getRecords());
+
+        // A modified CSV file invalidates the snapshot
+        Files.writeString(filePath, "a;b\n1;2\n");
+        assertNull(RelationSnapshot.read(filePath, true, ';', StandardCharsets.UTF_8));
+        relations = Relation.readAllRelationsIn(filePath.getParent().toString(), true, ';', StandardCharsets.UTF_8);
+        assertArrayEquals(new String[][]{{"1", "2"}}, relations.get(0).getRecords());
+    }
+
+    @Test
+    public void testInvalidSnapshots() throws Exception {
+        Path filePath = copyToTempFolder(Path.of("data", "data_profiling", "tpch_nation.csv"));
+        Path snapshotPath = RelationSnapshot.snapshotPathFor(filePath);
+
+        // Projected relations are not written, because they would be read as the full file
+        Relation projected = new Relation(filePath, true, ';', StandardCharsets.UTF_8, new int[]{0});
+        assertFalse(projected.writeSnapshot(filePath, true, ';', StandardCharsets.UTF_8));
+        assertFalse(Files.exists(snapshotPath));
+
+        // Truncated snapshots are ignored
+        Relation relation = new Relation(filePath, true, ';', StandardCharsets.UTF_8);
+        assertTrue(relation.writeSnapshot(filePath, true, ';', StandardCharsets.UTF_8));
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        Files.write(snapshotPath, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(RelationSnapshot.read(filePath, true, ';', StandardCharsets.UTF_8));
+        assertArrayEquals(relation.getRecords(), Relation.readRelation(filePath, true, ';', StandardCharsets.UTF_8).getRecords());
+
+        // Corrupt record counts are rejected before the code arrays are allocated
+        int offset = 27 + 4 + StandardCharsets.UTF_8.name().length() + 4 + relation.getName().getBytes(StandardCharsets.UTF_8).length + 4;
+        for (String attribute : relation.getAttributes())
+            offset += 4 + attribute.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(relation.getNumRecords(), ByteBuffer.wrap(bytes).getInt(offset));
+        for (int numRecords : new int[]{Integer.MAX_VALUE, -1}) {
+            Files.write(snapshotPath, ByteBuffer.wrap(bytes.clone()).putInt(offset, numRecords).array());
+            assertNull(RelationSnapshot.read(filePath, true, ';', StandardCharsets.UTF_8));
+        }
+
+        // Leftover temporary snapshots are not read as CSV files
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + RelationSnapshot.FILE_EXTENSION + ".tmp");
+        Files.write(tempPath, bytes);
+        tempPath.toFile().deleteOnExit();
+        assertEquals(1, Relation.readAllRelationsIn(filePath.getParent().toString(), true, ';', StandardCharsets.UTF_8).size());
+    }
+}
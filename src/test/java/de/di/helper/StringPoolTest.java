@@ -0,0 +1,51 @@
+package de.di.helper;
+
+import de.di.Relation;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class StringPoolTest {
+
+    @Test
+    public void testInternCorrectness() {
+        StringPool pool = new StringPool();
+        String a1 = new String("a");
+        String a2 = new String("a");
+
+        assertSame(a1, pool.intern(a1));
+        assertSame(a1, pool.intern(a2));
+        assertNull(pool.intern(null));
+        assertEquals(1, pool.size());
+
+        for (int i = 0; i < 10000; i++)
+            assertEquals(String.valueOf(i % 1000), pool.intern(String.valueOf(i % 1000)));
+        assertEquals(1001, pool.size());
+        assertSame(pool.intern("999"), pool.intern(new String("999")));
+    }
+
+    @Test
+    public void testRelationInterning() {
+        Path filePath = Path.of("data", "data_profiling", "tpch_supplier.csv");
+        Relation expected = new Relation(filePath, true, ';', StandardCharsets.UTF_8);
+
+        Relation perColumn = new Relation(filePath, true, ';', StandardCharsets.UTF_8).internValues(false);
+        assertArrayEquals(expected.getRecords(), perColumn.getRecords());
+        String[][] columns = perColumn.getColumns();
+        for (int i = 0; i < columns.length; i++)
+            for (int j = 1; j < columns[i].length; j++)
+                if (columns[i][j].equals(columns[i][0]))
+                    assertSame(columns[i][0], columns[i][j]);
+
+        Relation global = new Relation(filePath, true, ';', StandardCharsets.UTF_8).internValues(true);
+        assertArrayEquals(expected.getRecords(), global.getRecords());
+        String[][] records = global.getRecords();
+        for (String[] record : records)
+            for (String value : record)
+                if (value.equals(records[0][0]))
+                    assertSame(records[0][0], value);
+    }
+}
@@ -0,0 +1,25 @@
+package de.di.similarity_measures;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AffixSimilarityTest {
+
+    @Test
+    public void testCorrectness() {
+        AffixSimilarity prefix = new AffixSimilarity(AffixSimilarity.Affix.PREFIX);
+        assertEquals(5.0 / 10, prefix.calculate("Pink Floyd", "Pink Moon"), 0.000001);
+        assertEquals(1.0, prefix.calculate("", ""), 0.0);
+        assertEquals(0.0, prefix.calculate("abc", ""), 0.0);
+        assertEquals(2.0 / 3, prefix.calculate(new String[]{"The", "Rolling", "Stones"}, new String[]{"The", "Rolling", "Thunder"}), 0.000001);
+
+        AffixSimilarity suffix = new AffixSimilarity(AffixSimilarity.Affix.SUFFIX);
+        assertEquals(3.0 / 7, suffix.calculate("Beatles", "Eagles"), 0.000001);
+        assertEquals(0.5, suffix.calculate(new String[]{"Live", "Album"}, new String[]{"Studio", "Album"}), 0.000001);
+
+        // Very different lengths are bounded without comparing characters
+        assertEquals(0.2, prefix.calculate("abcde", "a", 0.5), 0.000001);
+        assertEquals(0.2, prefix.calculate("abcde", "a", 0.1), 0.000001);
+    }
+}
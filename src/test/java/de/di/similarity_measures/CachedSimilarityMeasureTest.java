@@ -0,0 +1,88 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.PreparedValue;
+import de.di.similarity_measures.helper.Tokenizer;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CachedSimilarityMeasureTest {
+
+    @Test
+    public void testCorrectness() {
+        Levenshtein levenshtein = new Levenshtein(true);
+        CachedSimilarityMeasure cached = new CachedSimilarityMeasure(levenshtein, 100);
+
+        assertEquals(levenshtein.calculate("Rock", "Pop"), cached.calculate("Rock", "Pop"), 0.0);
+        assertEquals(levenshtein.calculate("Rock", "Pop"), cached.calculate("Rock", "Pop"), 0.0);
+        assertEquals(levenshtein.calculate("Pop", "Rock"), cached.calculate("Pop", "Rock"), 0.0);
+        assertEquals(1, cached.getHits());
+        assertEquals(2, cached.getMisses());
+        assertEquals(2, cached.size());
+
+        // Bounds of dissimilar pairs answer calculations with the same or a higher minimum similarity only
+        double bound = cached.calculate("Jazz", "Blues", 0.9);
+        assertTrue(bound < 0.9);
+        assertEquals(bound, cached.calculate("Jazz", "Blues", 0.9), 0.0);
+        assertEquals(bound, cached.calculate("Jazz", "Blues", 0.95), 0.0);
+        assertEquals(3, cached.getHits());
+        assertTrue(cached.calculate("Jazz", "Blues", 0.5) < 0.5);
+        assertEquals(levenshtein.calculate("Jazz", "Blues"), cached.calculate("Jazz", "Blues"), 0.0);
+        assertEquals(levenshtein.calculate("Jazz", "Blues"), cached.calculate("Jazz", "Blues", 0.9), 0.0);
+        assertEquals(4, cached.getHits());
+
+        cached.clear();
+        assertEquals(0, cached.size());
+        assertEquals(0, cached.getHits());
+    }
+
+    @Test
+    public void testPreparedValues() {
+        Jaccard jaccard = new Jaccard(new Tokenizer(2, true), false);
+        CachedSimilarityMeasure cached = new CachedSimilarityMeasure(jaccard, 100);
+        PreparedValue rock = cached.prepare("Rock");
+        PreparedValue pop = cached.prepare("Pop");
+
+        // The values are prepared by the cached measure
+        assertArrayEquals(jaccard.prepare("Rock").getTokenIds(), rock.getTokenIds());
+
+        assertEquals(jaccard.calculate("Rock", "Pop"), cached.calculate(rock, pop), 0.0);
+        assertEquals(jaccard.calculate("Rock", "Pop"), cached.calculate(rock, pop, 0.1), 0.0);
+        assertEquals(jaccard.calculate("Rock", "Pop"), cached.calculate("Rock", "Pop"), 0.0);
+        assertEquals(2, cached.getHits());
+        assertEquals(1, cached.getMisses());
+    }
+
+    @Test
+    public void testEviction() {
+        CachedSimilarityMeasure cached = new CachedSimilarityMeasure(new Jaccard(new Tokenizer(2, false), false), 50);
+        for (int i = 0; i < 1000; i++)
+            cached.calculate("value" + i, "value" + (i + 1));
+        assertTrue(cached.size() <= 50);
+        assertEquals(1000, cached.getMisses());
+    }
+
+    @Test
+    public void testConcurrentCorrectness() {
+        Levenshtein levenshtein = new Levenshtein();
+        CachedSimilarityMeasure cached = new CachedSimilarityMeasure(levenshtein, 64);
+        String[] categories = {"Rock", "Pop", "Jazz", "Blues", "Classical", "Country", "Folk", "Metal"};
+        Random random = new Random(4);
+        int[][] pairs = new int[20000][];
+        for (int i = 0; i < pairs.length; i++)
+            pairs[i] = new int[]{random.nextInt(categories.length), random.nextInt(categories.length)};
+
+        IntStream.range(0, pairs.length).parallel().forEach(i -> {
+            String value1 = categories[pairs[i][0]];
+            String value2 = categories[pairs[i][1]];
+            assertEquals(levenshtein.calculate(value1, value2), cached.calculate(value1, value2), 0.0);
+        });
+        assertEquals(pairs.length, cached.getHits() + cached.getMisses());
+        assertTrue(cached.getHitRate() > 0.9);
+    }
+}
@@ -0,0 +1,51 @@
+package de.di.similarity_measures;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class EditDistanceIndexTest {
+
+    private static String render(List<EditDistanceIndex.Match> matches) {
+        StringBuilder builder = new StringBuilder();
+        for (EditDistanceIndex.Match match : matches)
+            builder.append(match.getIndex()).append(':').append(match.getDistance()).append(' ');
+        return builder.toString();
+    }
+
+    @Test
+    public void testQueriesCorrectness() {
+        Random random = new Random(9);
+        String[] values = new String[500];
+        for (int i = 0; i < values.length; i++)
+            values[i] = (i > 0 && random.nextInt(4) == 0) ? values[random.nextInt(i)] : RandomStrings.of(random, random.nextInt(13), 4);
+
+        for (Levenshtein levenshtein : new Levenshtein[]{new Levenshtein(false), new Levenshtein(true)}) {
+            EditDistanceIndex index = new EditDistanceIndex(levenshtein, values);
+            for (int run = 0; run < 30; run++) {
+                String query = RandomStrings.of(random, random.nextInt(13), 4);
+
+                // Linear scans as the reference
+                List<EditDistanceIndex.Match> all = new ArrayList<>();
+                for (int i = 0; i < values.length; i++)
+                    all.add(new EditDistanceIndex.Match(i, levenshtein.distance(query, values[i])));
+                all.sort(Comparator.comparingInt(EditDistanceIndex.Match::getDistance).thenComparingInt(EditDistanceIndex.Match::getIndex));
+
+                for (int maxDistance = 0; maxDistance <= 4; maxDistance++) {
+                    List<EditDistanceIndex.Match> expected = new ArrayList<>();
+                    for (EditDistanceIndex.Match match : all)
+                        if (match.getDistance() <= maxDistance)
+                            expected.add(match);
+                    assertEquals(render(expected), render(index.rangeQuery(query, maxDistance)));
+                }
+                for (int k : new int[]{1, 5, 20})
+                    assertEquals(render(all.subList(0, k)), render(index.topKQuery(query, k)));
+            }
+        }
+    }
+}
@@ -3,6 +3,10 @@ package de.di.similarity_measures;
 import de.di.similarity_measures.helper.Tokenizer;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 public class JaccardTest {
@@ -76,4 +80,48 @@ public class JaccardTest {
         result = jaccard.calculate(new String[]{"a", "", "a", "b", "c", "", "d"}, new String[]{"a", "b", "", "b", "c", "f", ""});
         assertEquals((double) 4 / 6, result, 0.000001);
     }
+
+    @Test
+    public void testCorrectnessTokenCodesAgainstTokenLists() {
+        Random random = new Random(42);
+        for (int tokenSize = 1; tokenSize <= 6; tokenSize++) {
+            for (boolean usePadding : new boolean[]{false, true}) {
+                for (boolean bagSemantics : new boolean[]{false, true}) {
+                    Tokenizer tokenizer = new Tokenizer(tokenSize, usePadding);
+                    Jaccard jaccard = new Jaccard(tokenizer, bagSemantics);
+                    for (int k = 0; k < 500; k++) {
+                        String string1 = RandomStrings.of(random, random.nextInt(20), 3);
+                        String string2 = RandomStrings.of(random, random.nextInt(20), 3);
+                        double expected = jaccard.calculate(tokenizer.tokenize(string1), tokenizer.tokenize(string2));
+                        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(jaccard.calculate(string1, string2)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCorrectnessBatch() {
+        Jaccard measure = new Jaccard(new Tokenizer(2, true), false);
+        Random random = new Random(5);
+        String[] values = new String[40];
+        for (int i = 0; i < values.length; i++)
+            values[i] = RandomStrings.of(random, random.nextInt(30), 4);
+        List<int[]> pairs = new ArrayList<>();
+        for (int k = 0; k < 200; k++)
+            pairs.add(new int[]{random.nextInt(values.length), random.nextInt(values.length)});
+
+        double[] oneToMany = measure.calculateOneToMany(values[7], values);
+        double[][] matrix = measure.calculateMatrix(values, values, true);
+        for (int j = 0; j < values.length; j++)
+            assertEquals(measure.calculate(values[7], values[j]), oneToMany[j], 0.0);
+        for (int i = 0; i < values.length; i++)
+            for (int j = 0; j < values.length; j++)
+                assertEquals(measure.calculate(values[i], values[j]), matrix[i][j], 0.0);
+        for (boolean parallel : new boolean[]{false, true}) {
+            double[] similarities = measure.calculatePairs(values, pairs, parallel);
+            for (int k = 0; k < pairs.size(); k++)
+                assertEquals(measure.calculate(values[pairs.get(k)[0]], values[pairs.get(k)[1]]), similarities[k], 0.0);
+        }
+    }
 }
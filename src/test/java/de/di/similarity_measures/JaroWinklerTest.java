@@ -0,0 +1,57 @@
+package de.di.similarity_measures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JaroWinklerTest {
+
+    @Test
+    public void testCorrectnessStrings() {
+        JaroWinkler jaro = new JaroWinkler(0, 0.7);
+        assertEquals(0.944444, jaro.calculate("MARTHA", "MARHTA"), 0.000001);
+        assertEquals(0.822222, jaro.calculate("DWAYNE", "DUANE"), 0.000001);
+        assertEquals(0.766667, jaro.calculate("DIXON", "DICKSONX"), 0.000001);
+
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        assertEquals(0.961111, jaroWinkler.calculate("MARTHA", "MARHTA"), 0.000001);
+        assertEquals(0.840000, jaroWinkler.calculate("DWAYNE", "DUANE"), 0.000001);
+        assertEquals(0.813333, jaroWinkler.calculate("DIXON", "DICKSONX"), 0.000001);
+        assertEquals(jaroWinkler.calculate("DUANE", "DWAYNE"), jaroWinkler.calculate("DWAYNE", "DUANE"), 0.000001);
+    }
+
+    @Test
+    public void testCorrectnessStringLists() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        assertEquals(jaroWinkler.calculate("MARTHA", "MARHTA"),
+                jaroWinkler.calculate(new String[]{"M", "A", "R", "T", "H", "A"}, new String[]{"M", "A", "R", "H", "T", "A"}), 0.000001);
+    }
+
+    @Test
+    public void testNull() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        assertEquals(1.0, jaroWinkler.calculate("", ""), 0.0);
+        assertEquals(0.0, jaroWinkler.calculate("Pink Floyd", ""), 0.0);
+        assertEquals(0.0, jaroWinkler.calculate("abc", "xyz"), 0.0);
+    }
+
+    @Test
+    public void testCorrectnessBounded() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        Random random = new Random(8);
+        for (int run = 0; run < 2000; run++) {
+            String string1 = RandomStrings.of(random, 1 + random.nextInt(20), 4);
+            String string2 = RandomStrings.of(random, 1 + random.nextInt(20), 4);
+            double minSimilarity = random.nextDouble();
+            double exact = jaroWinkler.calculate(string1, string2);
+            double bounded = jaroWinkler.calculate(string1, string2, minSimilarity);
+            if (exact >= minSimilarity)
+                assertEquals(exact, bounded, 0.0);
+            else
+                assertTrue(bounded >= exact);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.helper.PatternMask;
+import de.di.similarity_measures.helper.PreparedValue;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class LevenshteinTest {
 
@@ -77,4 +84,191 @@ public class LevenshteinTest {
         result = levenshtein.calculate(new String[]{"a", "", "a", "b", "c", "c", ""}, new String[]{"a", "", "a", "b", "c", "f", "e"});
         assertEquals(1 - (double) 2 / 7, result, 0.000001);
     }
+
+    private static String[] toTokens(String string) {
+        return string.chars().mapToObj(c -> String.valueOf((char) c)).toArray(String[]::new);
+    }
+
+    @Test
+    public void testCorrectnessStringsAgainstStringLists() {
+        Random random = new Random(42);
+        for (boolean withDamerau : new boolean[]{false, true}) {
+            Levenshtein levenshtein = new Levenshtein(withDamerau);
+            for (int k = 0; k < 5000; k++) {
+                String string1 = RandomStrings.of(random, random.nextInt(30), 4);
+                String string2 = (random.nextInt(3) == 0) ? swapSomeChars(random, string1) : RandomStrings.of(random, random.nextInt(30), 4);
+                double expected = levenshtein.calculate(toTokens(string1), toTokens(string2));
+                double actual = levenshtein.calculate(string1, string2);
+                assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testCorrectnessEngines() {
+        Random random = new Random(7);
+        for (boolean withDamerau : new boolean[]{false, true}) {
+            Levenshtein dynamicProgramming = new Levenshtein(withDamerau, Levenshtein.Engine.DYNAMIC_PROGRAMMING);
+            Levenshtein bitParallel = new Levenshtein(withDamerau, Levenshtein.Engine.BIT_PARALLEL);
+            for (int k = 0; k < 5000; k++) {
+                // Lengths around and beyond 64 characters exercise the blocked form
+                int maxLength = (k % 2 == 0) ? 70 : 200;
+                String string1 = RandomStrings.of(random, random.nextInt(maxLength), 4);
+                String string2 = (random.nextInt(3) == 0) ? swapSomeChars(random, string1) : RandomStrings.of(random, random.nextInt(maxLength), 4);
+                if (k % 5 == 0)
+                    string2 = string2 + "\u00e4\u4e2d";
+                assertEquals(dynamicProgramming.distance(string1, string2), bitParallel.distance(string1, string2));
+                assertEquals(dynamicProgramming.distance(string1, string2), bitParallel.distance(new PatternMask(string1), string2));
+                assertEquals(Double.doubleToLongBits(dynamicProgramming.calculate(string1, string2)),
+                        Double.doubleToLongBits(bitParallel.calculate(string1, string2)));
+            }
+        }
+    }
+
+    @Test
+    public void testCorrectnessBounded() {
+        Random random = new Random(13);
+        for (boolean withDamerau : new boolean[]{false, true}) {
+            for (Levenshtein.Engine engine : Levenshtein.Engine.values()) {
+                Levenshtein levenshtein = new Levenshtein(withDamerau, engine);
+                for (int k = 0; k < 5000; k++) {
+                    int maxLength = (k % 2 == 0) ? 20 : 150;
+                    String string1 = RandomStrings.of(random, random.nextInt(maxLength), 4);
+                    String string2 = (random.nextInt(2) == 0) ? swapSomeChars(random, string1) : RandomStrings.of(random, random.nextInt(maxLength), 4);
+                    double minSimilarity = random.nextDouble() * 1.2 - 0.1;
+
+                    double exact = levenshtein.calculate(string1, string2);
+                    double bounded = levenshtein.calculate(string1, string2, minSimilarity);
+                    if (exact >= minSimilarity) {
+                        assertEquals(Double.doubleToLongBits(exact), Double.doubleToLongBits(bounded));
+                    } else if (!Double.isNaN(exact)) {
+                        assertTrue(bounded < minSimilarity);
+                        assertTrue(bounded >= exact);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCorrectnessPrepared() {
+        Random random = new Random(17);
+        for (boolean withDamerau : new boolean[]{false, true}) {
+            for (Levenshtein.Engine engine : Levenshtein.Engine.values()) {
+                Levenshtein levenshtein = new Levenshtein(withDamerau, engine);
+                PreparedValue value1 = levenshtein.prepare(RandomStrings.of(random, 10, 4));
+                for (int k = 0; k < 2000; k++) {
+                    // The first value changes only every few pairs, so that its reused mask is exercised
+                    int maxLength = (k % 2 == 0) ? 20 : 150;
+                    if (k % 4 == 0)
+                        value1 = levenshtein.prepare(RandomStrings.of(random, random.nextInt(maxLength), 4));
+                    String string2 = (random.nextInt(2) == 0) ? swapSomeChars(random, value1.getValue()) : RandomStrings.of(random, random.nextInt(maxLength), 4);
+                    PreparedValue value2 = levenshtein.prepare(string2);
+                    double minSimilarity = random.nextDouble() * 1.2 - 0.1;
+
+                    double exact = levenshtein.calculate(value1.getValue(), string2);
+                    assertEquals(Double.doubleToLongBits(exact), Double.doubleToLongBits(levenshtein.calculate(value1, value2)));
+                    double bounded = levenshtein.calculate(value1, value2, minSimilarity);
+                    if (exact >= minSimilarity) {
+                        assertEquals(Double.doubleToLongBits(exact), Double.doubleToLongBits(bounded));
+                    } else if (!Double.isNaN(exact)) {
+                        assertTrue(bounded < minSimilarity);
+                        assertTrue(bounded >= exact);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A Levenshtein measure that counts the pattern masks that it builds for prepared values.
+     */
+    private static class CountingLevenshtein extends Levenshtein {
+        private int preparedMaskBuilds = 0;
+
+        private CountingLevenshtein(boolean withDamerau) {
+            super(withDamerau);
+        }
+
+        @Override
+        PatternMask buildPreparedMask(PatternMask mask, String value) {
+            this.preparedMaskBuilds++;
+            return super.buildPreparedMask(mask, value);
+        }
+    }
+
+    @Test
+    public void testPreparedMaskReuse() {
+        // Two measures that are used alternately, like those of two attributes of a record comparison
+        CountingLevenshtein levenshtein1 = new CountingLevenshtein(true);
+        CountingLevenshtein levenshtein2 = new CountingLevenshtein(false);
+        PreparedValue[] values1 = {levenshtein1.prepare("Data Integration"), levenshtein1.prepare("Datenintegration"), levenshtein1.prepare("Data Profiling")};
+        PreparedValue[] values2 = {levenshtein2.prepare("Marburg"), levenshtein2.prepare("Potsdam"), levenshtein2.prepare("Berlin")};
+        for (int j = 1; j < values1.length; j++) {
+            assertEquals(levenshtein1.calculate(values1[0].getValue(), values1[j].getValue()), levenshtein1.calculate(values1[0], values1[j]), 0.0);
+            double exact = levenshtein2.calculate(values2[0].getValue(), values2[j].getValue());
+            double bounded = levenshtein2.calculate(values2[0], values2[j], 0.5);
+            assertTrue((exact < 0.5) ? bounded < 0.5 : bounded == exact);
+        }
+        assertEquals(1, levenshtein1.preparedMaskBuilds);
+        assertEquals(1, levenshtein2.preparedMaskBuilds);
+
+        levenshtein1.calculate(values1[1], values1[2]);
+        assertEquals(2, levenshtein1.preparedMaskBuilds);
+    }
+
+    private static String swapSomeChars(Random random, String string) {
+        char[] chars = string.toCharArray();
+        for (int i = 0; i + 1 < chars.length; i++) {
+            if (random.nextInt(4) == 0) {
+                char c = chars[i];
+                chars[i] = chars[i + 1];
+                chars[i + 1] = c;
+            }
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testCorrectnessBatch() {
+        Random random = new Random(5);
+        String[] values = new String[40];
+        for (int i = 0; i < values.length; i++)
+            values[i] = RandomStrings.of(random, random.nextInt(150), 4);
+        List<int[]> pairs = new ArrayList<>();
+        for (int k = 0; k < 200; k++)
+            pairs.add(new int[]{random.nextInt(values.length), random.nextInt(values.length)});
+
+        for (Levenshtein measure : new Levenshtein[]{new Levenshtein(false), new Levenshtein(true), new Levenshtein(true, Levenshtein.Engine.DYNAMIC_PROGRAMMING)}) {
+            double[] oneToMany = measure.calculateOneToMany(values[7], values);
+            double[][] matrix = measure.calculateMatrix(values, values, true);
+            for (int j = 0; j < values.length; j++)
+                assertEquals(measure.calculate(values[7], values[j]), oneToMany[j], 0.0);
+            for (int i = 0; i < values.length; i++)
+                for (int j = 0; j < values.length; j++)
+                    assertEquals(measure.calculate(values[i], values[j]), matrix[i][j], 0.0);
+            for (boolean parallel : new boolean[]{false, true}) {
+                double[] similarities = measure.calculatePairs(values, pairs, parallel);
+                for (int k = 0; k < pairs.size(); k++)
+                    assertEquals(measure.calculate(values[pairs.get(k)[0]], values[pairs.get(k)[1]]), similarities[k], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testCorrectnessBoundedDistance() {
+        Levenshtein levenshtein = new Levenshtein(true);
+        assertEquals(1, levenshtein.distance("abcd", "abdc", 3));
+        assertEquals(3, levenshtein.distance("kitten", "sitting", 3));
+        assertEquals(3, levenshtein.distance("kitten", "sitting", 2));
+        assertEquals(2, levenshtein.distance("a", "abcdef", 1));
+
+        // The single-word engines stop early, but still report maxDistance + 1
+        for (boolean withDamerau : new boolean[]{false, true}) {
+            Levenshtein bitParallel = new Levenshtein(withDamerau, Levenshtein.Engine.BIT_PARALLEL);
+            assertEquals(3, bitParallel.distance("aaaaaaaaaaaa", "bbbbbbbbbbbb", 2));
+            assertEquals(1, bitParallel.distance("aaaaaaaaaaaa", "aaaaaaaaaaab", 2));
+            assertEquals(0, bitParallel.distance("", "", 0));
+        }
+    }
 }
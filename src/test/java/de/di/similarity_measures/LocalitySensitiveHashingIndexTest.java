@@ -0,0 +1,95 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LocalitySensitiveHashingIndexTest {
+
+    @Test
+    public void testBandsAndRows() {
+        int[] low = LocalitySensitiveHashingIndex.bandsAndRowsFor(0.3, 128);
+        int[] high = LocalitySensitiveHashingIndex.bandsAndRowsFor(0.9, 128);
+        assertTrue(low[0] * low[1] <= 128);
+        assertTrue(high[0] * high[1] <= 128);
+
+        // Higher thresholds need longer bands, i.e., fewer and stricter buckets
+        assertTrue(high[1] > low[1]);
+        assertTrue(high[0] < low[0]);
+    }
+
+    @Test
+    public void testCandidatesCorrectness() {
+        Tokenizer tokenizer = new Tokenizer(3, true);
+        Jaccard jaccard = new Jaccard(tokenizer, false);
+        Random random = new Random(3);
+
+        // Groups of near-duplicates of random base strings
+        String[] values = new String[300];
+        for (int i = 0; i < values.length; i += 3) {
+            values[i] = RandomStrings.of(random, 40, 26);
+            values[i + 1] = values[i] + "x";
+            values[i + 2] = "y" + values[i].substring(1);
+        }
+
+        LocalitySensitiveHashingIndex index = LocalitySensitiveHashingIndex.forThreshold(tokenizer, 0.7, 128);
+        index.addAll(values);
+        assertEquals(values.length, index.size());
+
+        List<int[]> pairs = index.candidatePairs();
+        int truePairs = 0;
+        for (int i = 0; i < values.length; i++)
+            for (int j = i + 1; j < values.length; j++)
+                if (jaccard.calculate(values[i], values[j]) >= 0.85)
+                    truePairs++;
+
+        int foundPairs = 0;
+        for (int[] pair : pairs) {
+            assertTrue(pair[0] < pair[1]);
+            if (jaccard.calculate(values[pair[0]], values[pair[1]]) >= 0.85)
+                foundPairs++;
+        }
+        // Pairs well above the threshold are found with high probability
+        assertTrue(foundPairs >= 0.95 * truePairs);
+
+        // Far fewer candidates than all pairs, and mostly the near-duplicates
+        assertTrue(pairs.size() < 2 * values.length);
+
+        // Equal values share all buckets
+        int[] candidates = index.query(values[30]);
+        assertTrue(Arrays.binarySearch(candidates, 30) >= 0);
+        assertEquals(1.0, index.estimate(30, 30), 0.0);
+        assertEquals(0, index.query("completely different value").length);
+
+        for (int[] pair : index.candidatePairs(0.8))
+            assertTrue(index.estimate(pair[0], pair[1]) >= 0.8);
+    }
+
+    @Test
+    public void testEmptyValues() {
+        // Values without tokens would share every bucket; they must not become candidates of each other
+        LocalitySensitiveHashingIndex index = new LocalitySensitiveHashingIndex(new Tokenizer(3, false), 8, 2, 42);
+        String[] values = new String[1000];
+        Arrays.fill(values, "");
+        values[0] = null;
+        values[1] = "banana";
+        values[2] = "banana";
+        index.addAll(values);
+
+        assertEquals(1000, index.size());
+        List<int[]> pairs = index.candidatePairs();
+        assertEquals(1, pairs.size());
+        assertArrayEquals(new int[]{1, 2}, pairs.get(0));
+        assertEquals(0, index.query("").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+        LocalitySensitiveHashingIndex.bandsAndRowsFor(1.0, 128);
+    }
+}
@@ -3,6 +3,10 @@ package de.di.similarity_measures;
 import de.di.similarity_measures.helper.Tokenizer;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 public class LocalitySensitiveHashingTest {
@@ -48,4 +52,40 @@ public class LocalitySensitiveHashingTest {
         result = localitySensitiveHashing.calculate(new String[]{"aa", "", "ab", "ba", "cb", "", "da"}, new String[]{"", "bb", "ab", "ba", "cb", "fa", "eb"});
         assertEquals((double) 1 / 1, result, 0.000001);
     }
+
+    @Test
+    public void testCorrectnessBatch() {
+        LocalitySensitiveHashing measure = new LocalitySensitiveHashing(new Tokenizer(3, true), false, 3);
+        Random random = new Random(5);
+        String[] values = new String[40];
+        for (int i = 0; i < values.length; i++)
+            values[i] = RandomStrings.of(random, random.nextInt(30), 4);
+        List<int[]> pairs = new ArrayList<>();
+        for (int k = 0; k < 200; k++)
+            pairs.add(new int[]{random.nextInt(values.length), random.nextInt(values.length)});
+
+        double[] oneToMany = measure.calculateOneToMany(values[7], values);
+        double[][] matrix = measure.calculateMatrix(values, values, true);
+        for (int j = 0; j < values.length; j++)
+            assertEquals(measure.calculate(values[7], values[j]), oneToMany[j], 0.0);
+        for (int i = 0; i < values.length; i++)
+            for (int j = 0; j < values.length; j++)
+                assertEquals(measure.calculate(values[i], values[j]), matrix[i][j], 0.0);
+        for (boolean parallel : new boolean[]{false, true}) {
+            double[] similarities = measure.calculatePairs(values, pairs, parallel);
+            for (int k = 0; k < pairs.size(); k++)
+                assertEquals(measure.calculate(values[pairs.get(k)[0]], values[pairs.get(k)[1]]), similarities[k], 0.0);
+        }
+    }
+
+    @Test
+    public void testPreparedValues() {
+        for (boolean bagSemantics : new boolean[]{false, true}) {
+            LocalitySensitiveHashing measure = new LocalitySensitiveHashing(new Tokenizer(2, false), bagSemantics, 2);
+            String[] values = {"Big Data Systems", "Data Integration", "", "Data", "Big Data"};
+            for (String value1 : values)
+                for (String value2 : values)
+                    assertEquals(measure.calculate(value1, value2), measure.calculate(measure.prepare(value1), measure.prepare(value2)), 0.0);
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package de.di.similarity_measures;
+
+import java.util.Random;
+
+/**
+ * Creates random strings over small alphabets for the randomized tests of the similarity measures; small alphabets
+ * make similar strings and repeated tokens likely.
+ */
+final class RandomStrings {
+
+    private RandomStrings() {
+    }
+
+    /**
+     * Creates a random string of the given length from the first alphabetSize lowercase letters.
+     * @param random The source of randomness.
+     * @param length The length of the string.
+     * @param alphabetSize The number of letters, starting at 'a', that the string is made of.
+     * @return The random string.
+     */
+    static String of(Random random, int length, int alphabetSize) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            builder.append((char) ('a' + random.nextInt(alphabetSize)));
+        return builder.toString();
+    }
+}
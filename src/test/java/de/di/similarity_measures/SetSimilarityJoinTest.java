@@ -0,0 +1,84 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SetSimilarityJoinTest {
+
+    private static String[] randomValues(Random random, int size) {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && random.nextInt(3) == 0) {
+                // A near-duplicate of an earlier value
+                StringBuilder builder = new StringBuilder(values[random.nextInt(i)]);
+                if (builder.length() > 0)
+                    builder.setCharAt(random.nextInt(builder.length()), (char) ('a' + random.nextInt(5)));
+                values[i] = builder.toString();
+            } else {
+                values[i] = RandomStrings.of(random, random.nextInt(25), 5);
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void testSelfJoinCorrectness() {
+        Tokenizer tokenizer = new Tokenizer(2, true);
+        Jaccard jaccard = new Jaccard(tokenizer, false);
+        String[] values = randomValues(new Random(11), 300);
+
+        for (double threshold : new double[]{1e-10, 0.5, 0.7, 0.9, 1.0}) {
+            Set<String> expected = new TreeSet<>();
+            for (int i = 0; i < values.length; i++)
+                for (int j = i + 1; j < values.length; j++)
+                    if (jaccard.calculate(values[i], values[j]) >= threshold)
+                        expected.add(i + "," + j);
+
+            for (int parallelism : new int[]{1, 4}) {
+                Set<String> actual = new TreeSet<>();
+                for (SetSimilarityJoin.SimilarPair pair : new SetSimilarityJoin(tokenizer, threshold, parallelism).selfJoin(values)) {
+                    assertTrue(pair.getIndex1() < pair.getIndex2());
+                    assertEquals(jaccard.calculate(values[pair.getIndex1()], values[pair.getIndex2()]), pair.getSimilarity(), 0.0);
+                    assertTrue(actual.add(pair.getIndex1() + "," + pair.getIndex2()));
+                }
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testJoinCorrectness() {
+        Tokenizer tokenizer = new Tokenizer(3, true);
+        Jaccard jaccard = new Jaccard(tokenizer, false);
+        Random random = new Random(12);
+        String[] values1 = randomValues(random, 150);
+        String[] values2 = randomValues(random, 200);
+        System.arraycopy(values1, 0, values2, 0, 50);
+
+        for (double threshold : new double[]{1e-10, 0.6}) {
+            Set<String> expected = new TreeSet<>();
+            for (int i = 0; i < values1.length; i++)
+                for (int j = 0; j < values2.length; j++)
+                    if (jaccard.calculate(values1[i], values2[j]) >= threshold)
+                        expected.add(i + "," + j);
+            assertTrue(expected.size() >= 50);
+
+            Set<String> actual = new TreeSet<>();
+            for (SetSimilarityJoin.SimilarPair pair : new SetSimilarityJoin(tokenizer, threshold).join(values1, values2))
+                assertTrue(actual.add(pair.getIndex1() + "," + pair.getIndex2()));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+        new SetSimilarityJoin(new Tokenizer(2, false), 0);
+    }
+}
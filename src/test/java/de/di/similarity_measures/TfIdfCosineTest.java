@@ -0,0 +1,87 @@
+package de.di.similarity_measures;
+
+import de.di.Relation;
+import de.di.similarity_measures.helper.PreparedValue;
+import de.di.similarity_measures.helper.Tokenizer;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TfIdfCosineTest {
+
+    @Test
+    public void testCorrectness() {
+        String[] column = {"a", "b", "c", "d"};
+        TfIdfCosine tfIdf = new TfIdfCosine(new Tokenizer(1, false), column);
+
+        assertEquals(1.0, tfIdf.calculate("ab", "ab"), 0.000001);
+        assertEquals(0.0, tfIdf.calculate("ab", "cd"), 0.000001);
+        assertEquals(Double.NaN, tfIdf.calculate("", ""), 0.0);
+        assertEquals(0.0, tfIdf.calculate("", "ab"), 0.0);
+
+        // With equal idfs, the cosine of {a, b} and {a, c} is 1/2
+        assertEquals(0.5, tfIdf.calculate("ab", "ac"), 0.000001);
+
+        // "x" occurs in three values, "y" only in one, so sharing "y" weighs more than sharing "x"
+        TfIdfCosine weighted = new TfIdfCosine(new Tokenizer(1, false), new String[]{"xa", "xb", "xc", "ya"});
+        double sharedFrequent = weighted.calculate("xb", "xc");
+        double sharedRare = weighted.calculate("yb", "yc");
+        assertEquals(0.5, sharedRare, 0.000001);
+        assertEquals(sharedFrequent, weighted.calculate(new String[]{"x", "b"}, new String[]{"x", "c"}), 0.000001);
+        assertTrue(sharedRare > sharedFrequent);
+    }
+
+    @Test
+    public void testUnseenTokens() {
+        TfIdfCosine tfIdf = new TfIdfCosine(new Tokenizer(1, false), new String[]{"a", "b"});
+
+        // Unseen tokens are matched by their strings within one comparison, never across comparisons
+        assertEquals(1.0, tfIdf.calculate("xy", "xy"), 0.000001);
+        assertEquals(0.0, tfIdf.calculate("x", "y"), 0.0);
+        double idfA = Math.log(3.0 / 2.0) + 1;
+        double idfUnseen = Math.log(3.0) + 1;
+        assertEquals(idfA * idfA / (idfA * idfA + idfUnseen * idfUnseen), tfIdf.calculate("ax", "ay"), 0.000001);
+        assertEquals(0.0, tfIdf.calculate("y", "x"), 0.0);
+        assertTrue(tfIdf.topK("xy", 5).isEmpty());
+        assertEquals("a", tfIdf.topK("ax", 5).get(0).getValue());
+    }
+
+    @Test
+    public void testPreparedValues() {
+        TfIdfCosine tfIdf = new TfIdfCosine(new Tokenizer(1, false), new String[]{"xa", "xb", "xc", "ya"});
+        String[] values = {"xa", "xb", "yc", "ax", "xyz", "zz", "", "z"};
+        PreparedValue[] prepared = new PreparedValue[values.length];
+        for (int i = 0; i < values.length; i++)
+            prepared[i] = tfIdf.prepare(values[i]);
+
+        // Unseen tokens of prepared values match across values
+        for (int i = 0; i < values.length; i++)
+            for (int j = 0; j < values.length; j++)
+                assertEquals(tfIdf.calculate(values[i], values[j]), tfIdf.calculate(prepared[i], prepared[j]), 0.000001);
+    }
+
+    @Test
+    public void testTopKCorrectness() {
+        Relation relation = new Relation("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv");
+        TfIdfCosine tfIdf = new TfIdfCosine(new Tokenizer(3, true), relation, 2);
+
+        String[] addresses = relation.getColumns()[2];
+        for (int q = 0; q < addresses.length; q += 97) {
+            String query = addresses[q];
+            List<TfIdfCosine.Match> matches = tfIdf.topK(query, 5);
+            assertEquals(query, matches.get(0).getValue());
+            assertEquals(1.0, matches.get(0).getSimilarity(), 0.000001);
+
+            // No value outside the top-k is more similar than the k-th match
+            double kth = matches.get(matches.size() - 1).getSimilarity();
+            for (TfIdfCosine.Match match : matches)
+                assertEquals(tfIdf.calculate(query, match.getValue()), match.getSimilarity(), 0.000001);
+            for (String address : addresses)
+                assertTrue(tfIdf.calculate(query, address) <= kth + 0.000001 || matches.stream().anyMatch(match -> match.getValue().equals(address)));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package de.di.similarity_measures.helper;
+
+import de.di.similarity_measures.Jaccard;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MinHashFamilyTest {
+
+    @Test
+    public void testSignatures() {
+        MinHashFamily family = new MinHashFamily(16, 42);
+        Tokenizer tokenizer = new Tokenizer(2, false);
+
+        // Signatures may be longer than the tokens and ignore the order and repetition of tokens
+        long[] signature = family.signature(tokenizer.tokenizeToCodes("Data Integration"));
+        assertEquals(16, signature.length);
+        assertArrayEquals(signature, family.signature(tokenizer.tokenizeToCodes("Data Integration")));
+        assertArrayEquals(family.signature(new String[]{"ab", "cd"}), family.signature(new String[]{"cd", "ab", "cd"}));
+        assertArrayEquals(signature, new MinHashFamily(16, 42).signature(tokenizer.tokenizeToCodes("Data Integration")));
+        assertNotEquals(signature[0], new MinHashFamily(16, 43).signature(tokenizer.tokenizeToCodes("Data Integration"))[0]);
+
+        assertEquals(MinHashFamily.EMPTY, family.signature(new long[0])[0]);
+        assertEquals(1.0, MinHashFamily.similarity(signature, signature), 0.0);
+        assertEquals(1.0, MinHashFamily.similarity(MinHashFamily.compact(signature), MinHashFamily.compact(signature)), 0.0);
+    }
+
+    @Test
+    public void testSimilarityApproximatesJaccard() {
+        MinHashFamily family = new MinHashFamily(1024, 7);
+        Tokenizer tokenizer = new Tokenizer(3, true);
+        Jaccard jaccard = new Jaccard(tokenizer, false);
+        Random random = new Random(1);
+
+        for (int run = 0; run < 20; run++) {
+            StringBuilder builder1 = new StringBuilder();
+            for (int i = 0; i < 200; i++)
+                builder1.append((char) ('a' + random.nextInt(8)));
+            StringBuilder builder2 = new StringBuilder(builder1);
+            for (int i = random.nextInt(60); i > 0; i--)
+                builder2.setCharAt(random.nextInt(builder2.length()), (char) ('a' + random.nextInt(8)));
+
+            long[] codes1 = tokenizer.tokenizeToCodes(builder1.toString());
+            long[] codes2 = tokenizer.tokenizeToCodes(builder2.toString());
+            double expected = jaccard.calculate(builder1.toString(), builder2.toString());
+            long[] signature1 = family.signature(codes1);
+            long[] signature2 = family.signature(codes2);
+            assertEquals(expected, MinHashFamily.similarity(signature1, signature2), 0.1);
+            assertEquals(expected, MinHashFamily.similarity(MinHashFamily.compact(signature1), MinHashFamily.compact(signature2)), 0.1);
+
+            int[] ids1 = tokenizer.tokenizeToIds(builder1.toString());
+            int[] ids2 = tokenizer.tokenizeToIds(builder2.toString());
+            assertEquals(expected, MinHashFamily.similarity(family.signature(ids1), family.signature(ids2)), 0.1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncomparableSignatures() {
+        MinHashFamily.similarity(new MinHashFamily(4).signature(new long[]{1}), new MinHashFamily(8).signature(new long[]{1}));
+    }
+}
@@ -0,0 +1,51 @@
+package de.di.similarity_measures.helper;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TokenStoreTest {
+
+    @Test
+    public void testTokenIdsCorrectness() {
+        TokenStore store = new Tokenizer(2, false).getTokenStore();
+        assertSame(store, TokenStore.of(2, false));
+        assertNotSame(store, TokenStore.of(2, true));
+
+        int[] ids = store.tokenIds("banana");
+        assertSame(ids, new Tokenizer(2, false).tokenizeToIds("banana"));
+        assertEquals(5, ids.length);
+        assertEquals(3, Arrays.stream(ids).distinct().count());
+
+        // Tokens that occur in several values share their ids
+        int[] otherIds = store.tokenIds("nab");
+        int naId = store.getDictionary().lookup(packed("na"));
+        assertEquals("na", store.getDictionary().tokenOf(naId));
+        assertTrue(Arrays.binarySearch(ids, naId) >= 0);
+        assertTrue(Arrays.binarySearch(otherIds, naId) >= 0);
+
+        String[] tokens = store.tokens("banana");
+        String[] expected = new Tokenizer(2, false).tokenize("banana");
+        Arrays.sort(tokens);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, tokens);
+    }
+
+    @Test
+    public void testCapacity() {
+        TokenStore store = new TokenStore(2, true, 512);
+        int[] firstIds = store.tokenIds("value0").clone();
+        for (int i = 0; i < 5000; i++)
+            store.tokenIds("value" + i);
+        assertTrue(store.size() <= 512);
+
+        // Evicted values are tokenized again into the same ids
+        assertArrayEquals(firstIds, store.tokenIds("value0"));
+    }
+
+    private static long packed(String token) {
+        return new Tokenizer(token.length(), false).tokenizeToCodes(token)[0];
+    }
+}
@@ -2,8 +2,11 @@ package de.di.similarity_measures.helper;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TokenizerTest {
 
@@ -75,4 +78,34 @@ public class TokenizerTest {
         test = new String[]{p + p + p, p + p + p};
         assertArrayEquals(test, result);
     }
+
+    @Test
+    public void testTokenizationToCodes() {
+        for (int tokenSize = 1; tokenSize <= 5; tokenSize++) {
+            Tokenizer tokenizer = new Tokenizer(tokenSize, true);
+            String[] tokens = tokenizer.tokenize("Tim Tim Tina");
+            long[] codes = tokenizer.tokenizeToCodes("Tim Tim Tina");
+            assertEquals(tokens.length, codes.length);
+
+            // Equal tokens must have equal codes and different tokens different codes
+            assertEquals(Arrays.stream(tokens).distinct().count(), Arrays.stream(codes).distinct().count());
+            for (int i = 1; i < codes.length; i++)
+                assertTrue(codes[i - 1] <= codes[i]);
+        }
+        assertEquals(0, new Tokenizer(3, false).tokenizeToCodes("ab").length);
+    }
+
+    @Test
+    public void testTokenizationToCodesRolling() {
+        // Rolled codes must equal the codes of the tokens that are encoded on their own
+        for (int tokenSize = 1; tokenSize <= 8; tokenSize++) {
+            Tokenizer tokenizer = new Tokenizer(tokenSize, true);
+            Tokenizer tokenTokenizer = new Tokenizer(tokenSize, false);
+            String[] tokens = tokenizer.tokenize("Data Integration \u00e4\u4e2d");
+            long[] codes = tokenizer.tokenCodes("Data Integration \u00e4\u4e2d");
+            assertEquals(tokens.length, codes.length);
+            for (int i = 0; i < tokens.length; i++)
+                assertEquals(tokenTokenizer.tokenCodes(tokens[i])[0], codes[i]);
+        }
+    }
 }
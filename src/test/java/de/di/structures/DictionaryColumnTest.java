@@ -0,0 +1,37 @@
+package de.di.structures;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DictionaryColumnTest {
+
+    @Test
+    public void testEncodingCorrectness() {
+        DictionaryColumn column = new DictionaryColumn(new String[]{"b", "a", "b", "c", "a", "b"});
+
+        assertEquals(6, column.size());
+        assertEquals(3, column.cardinality());
+        assertArrayEquals(new String[]{"b", "a", "c"}, column.getDictionary());
+        assertArrayEquals(new int[]{0, 1, 0, 2, 1, 0}, column.getCodes());
+        for (int i = 0; i < column.size(); i++)
+            assertEquals(new String[]{"b", "a", "b", "c", "a", "b"}[i], column.valueOf(i));
+        assertFalse(column.isUnique());
+        assertTrue(new DictionaryColumn(new String[]{"a", "b", "c"}).isUnique());
+    }
+
+    @Test
+    public void testCombineCorrectness() {
+        DictionaryColumn column1 = new DictionaryColumn(new String[]{"a", "a", "a", "b", "b", "a"});
+        DictionaryColumn column2 = new DictionaryColumn(new String[]{"a", "a", "b", "b", "b", "b"});
+        DictionaryColumn column3 = new DictionaryColumn(new String[]{"x", "y", "x", "x", "x", "x"});
+
+        DictionaryColumn combined = DictionaryColumn.combine(column1, column2);
+        assertArrayEquals(new int[]{0, 0, 1, 2, 2, 1}, combined.getCodes());
+        assertEquals(3, combined.cardinality());
+
+        combined = DictionaryColumn.combine(column1, column2, column3);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 3, 2}, combined.getCodes());
+        assertFalse(combined.isUnique());
+    }
+}
@@ -0,0 +1,86 @@
+package de.di.structures;
+
+import de.di.Relation;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class TypedColumnTest {
+
+    private static void assertRoundTrip(String[] values) {
+        TypedColumn column = TypedColumn.of(values);
+        for (int i = 0; i < values.length; i++)
+            assertEquals(values[i], column.valueOf(i));
+    }
+
+    @Test
+    public void testTypeInference() {
+        assertEquals(TypedColumn.Type.INTEGER, TypedColumn.of(new String[]{"1", "-25", "", "0", "123456789012345678"}).getType());
+        assertEquals(TypedColumn.Type.DECIMAL, TypedColumn.of(new String[]{"5755.94", "-0.50", "", "100.00"}).getType());
+        assertEquals(TypedColumn.Type.DATE, TypedColumn.of(new String[]{"1996-01-02", "", "2000-02-29"}).getType());
+
+        // Non-canonical values cannot be reproduced from their primitive form and keep the column a string column
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"1", "007"}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"1", "+1"}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"-0"}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"1.5", "1.50"}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"1", "1.5"}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"1999-02-29"}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"1", "a"}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"1", null}).getType());
+        assertEquals(TypedColumn.Type.STRING, TypedColumn.of(new String[]{"", ""}).getType());
+    }
+
+    @Test
+    public void testAccessorsCorrectness() {
+        TypedColumn integers = TypedColumn.of(new String[]{"42", "", "-7"});
+        assertEquals(42, integers.getLong(0));
+        assertTrue(integers.isNull(1));
+        assertFalse(integers.isNull(2));
+        assertEquals(-7.0, integers.getDouble(2), 0.0);
+        assertTrue(integers.compare(1, 2) < 0);
+        assertTrue(integers.compare(2, 0) < 0);
+
+        TypedColumn decimals = TypedColumn.of(new String[]{"9.99", "10.01"});
+        assertEquals(2, decimals.getScale());
+        assertEquals(9.99, decimals.getDouble(0), 0.0);
+        assertTrue(decimals.compare(0, 1) < 0);
+
+        TypedColumn dates = TypedColumn.of(new String[]{"1996-01-02", "1995-12-31"});
+        assertEquals(LocalDate.of(1996, 1, 2), dates.getDate(0));
+        assertTrue(dates.compare(1, 0) < 0);
+
+        assertRoundTrip(new String[]{"1", "-25", "", "0", "123456789012345678"});
+        assertRoundTrip(new String[]{"5755.94", "-0.50", "", "100.00", "0.01", "9999999999999.99"});
+        assertRoundTrip(new String[]{"1996-01-02", "", "2000-02-29", "0001-01-01"});
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStringColumnHasNoValues() {
+        TypedColumn.of(new String[]{"a"}).getLong(0);
+    }
+
+    @Test
+    public void testTypedEncodingCorrectness() {
+        Relation relation = new Relation("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv");
+
+        TypedColumn[] typedColumns = relation.getTypedColumns();
+        assertEquals(TypedColumn.Type.INTEGER, typedColumns[0].getType());
+        assertEquals(TypedColumn.Type.STRING, typedColumns[1].getType());
+        assertEquals(TypedColumn.Type.DECIMAL, typedColumns[5].getType());
+
+        String[][] columns = relation.getColumns();
+        for (int i = 0; i < columns.length; i++) {
+            DictionaryColumn expected = new DictionaryColumn(columns[i]);
+            DictionaryColumn actual = relation.getEncodedColumns()[i];
+            assertArrayEquals(expected.getDictionary(), actual.getDictionary());
+            assertArrayEquals(expected.getCodes(), actual.getCodes());
+            if (typedColumns[i].isTyped())
+                for (int j = 0; j < columns[i].length; j++)
+                    assertEquals(columns[i][j], typedColumns[i].valueOf(j));
+        }
+    }
+}